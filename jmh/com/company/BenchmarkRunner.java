@@ -0,0 +1,33 @@
+package com.company;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this directory with the GC profiler attached, so every result has B/op (gc.alloc.rate.norm)
+ * next to ns/op, and writes them to jmh-result.json for comparison between releases.
+ * mvn -P jmh package builds them into target/benchmarks.jar; run java -jar target/benchmarks.jar from the project
+ * directory so resources/ is found as for Main.
+ * Usage: BenchmarkRunner [&lt;JMH options&gt;] [&lt;benchmark name regex&gt;...], e.g. -p orbits=200 EphemerisBenchmark
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json");
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("com\\.company\\..*Benchmark");
+        }
+        new Runner(options.build()).run();
+    }
+}
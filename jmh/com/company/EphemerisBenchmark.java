@@ -0,0 +1,125 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link EphemerisGenerator} throughput on one thread and across a parallel stream, over a spread of parking and
+ * eccentric orbits around kerbin, mun and minmus. The samples counter is the rate that matters: samples per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EphemerisBenchmark {
+
+    private static final String[] BODIES = {"kerbin", "mun", "minmus"};
+
+    @Param({"2000"})
+    public int orbits;
+
+    @Param({"1000"})
+    public int samplesPerPeriod;
+
+    @Param({"3"})
+    public double periods;
+
+    private BodyProperties[] bodies;
+    private PrimitiveOrbit[] solved;
+
+    @Setup
+    public void setUp() throws IOException {
+        BodyRegistry bodyRegistry = new BodyRegistry(Main.SYSTEM_PROPERTIES);
+        Random random = new Random(42);
+        bodies = new BodyProperties[orbits];
+        solved = new PrimitiveOrbit[orbits];
+        for (int i = 0; i < orbits; ) {
+            BodyProperties body = bodyRegistry.get(BODIES[random.nextInt(BODIES.length)]);
+            PrimitiveOrbit orbit = new PrimitiveOrbit();
+            orbit.setPeriapsisHeight(body.getRadius() + body.getAtmosphereThickness() + 10000 + random.nextInt(50000));
+            orbit.setEccentricity(random.nextInt(4) == 0 ? 0 : random.nextDouble() * 0.9);
+            if (PrimitiveOrbitSolver.solve(orbit, body) == OrbitStatus.SOLVED) {
+                bodies[i] = body;
+                solved[i++] = orbit;
+            }
+        }
+    }
+
+    @Benchmark
+    public void single(Samples samples) {
+        generate(IntStream.range(0, orbits), samples);
+    }
+
+    @Benchmark
+    public void parallel(Samples samples) {
+        generate(IntStream.range(0, orbits).parallel(), samples);
+    }
+
+    private void generate(IntStream range, Samples samples) {
+        CountingSink[] sinks = new CountingSink[orbits];
+        range.forEach(i -> {
+            sinks[i] = new CountingSink();
+            double step = solved[i].getOrbitalPeriod() / samplesPerPeriod;
+            try {
+                EphemerisGenerator.generate(i, bodies[i], solved[i], step, periods, sinks[i]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        double checksum = 0;
+        for (CountingSink sink : sinks) {
+            samples.samples += sink.samples;
+            checksum += sink.checksum;
+        }
+        if (Double.isNaN(checksum)) {
+            throw new IllegalStateException("Ephemeris produced NaN");
+        }
+    }
+
+    /**
+     * Counts the samples generated, which JMH reports as a rate next to the invocation rate.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Samples {
+
+        public long samples;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            samples = 0;
+        }
+    }
+
+    private static class CountingSink implements EphemerisSink {
+
+        private long samples;
+        private double checksum;
+
+        @Override
+        public void sample(int orbit, double time, double trueAnomaly, double radius, double altitude,
+                           double speed) {
+            samples++;
+            checksum += trueAnomaly + altitude + speed;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InputParserBenchmark {
+
+    public String orbitalPeriod = "1,234h 56m 7s";
+    public String heightAboveSurface = "100,000AS";
+    public String height = "700000";
+    public String scientificValue = "5.2915158^22";
+
+    private BodyProperties kerbin;
+    private ByteBuffer orbitalPeriodBytes;
+    private ByteBuffer heightAboveSurfaceBytes;
+    private ByteBuffer scientificValueBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        orbitalPeriodBytes = ByteBuffer.wrap(orbitalPeriod.getBytes(StandardCharsets.UTF_8));
+        heightAboveSurfaceBytes = ByteBuffer.wrap(heightAboveSurface.getBytes(StandardCharsets.UTF_8));
+        scientificValueBytes = ByteBuffer.wrap(scientificValue.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Double parseOrbitalPeriod() {
+        return InputParser.parseOrbitalPeriod(orbitalPeriod);
+    }
+
+    @Benchmark
+    public Double interpretInputHeightAboveSurface() {
+        return InputParser.interpretInputHeight(heightAboveSurface, kerbin);
+    }
+
+    @Benchmark
+    public Double interpretInputHeight() {
+        return InputParser.interpretInputHeight(height, kerbin);
+    }
+
+    @Benchmark
+    public Double calculateValue() {
+        return InputParser.calculateValue(scientificValue);
+    }
+
+    @Benchmark
+    public double parseOrbitalPeriodBytes() {
+        return ByteInputParser.parseOrbitalPeriod(orbitalPeriodBytes, 0, orbitalPeriodBytes.limit());
+    }
+
+    @Benchmark
+    public double parseHeightAboveSurfaceBytes() {
+        return ByteInputParser.parseHeight(heightAboveSurfaceBytes, 0, heightAboveSurfaceBytes.limit(), kerbin);
+    }
+
+    @Benchmark
+    public double parseScientificValueBytes() {
+        return ByteInputParser.calculateValue(scientificValueBytes, 0, scientificValueBytes.limit());
+    }
+}
@@ -0,0 +1,108 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link SolverMetrics} costs on the paths it instruments. {@link #primitiveSolve} is the baseline with no
+ * instrumentation at all; {@link #boxedSolve} runs the same arithmetic through {@link OrbitSolver#solve} with metrics
+ * off, so any gap between the two beyond boxing would be the instrumentation that should compile away. The
+ * WithMetrics forms run in a JVM started with -Dorbit.metrics=true.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorbit.metrics=false")
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    private static final String[] BODIES = {"kerbin", "mun", "minmus"};
+    private static final int ORBITS = 4096;
+    private static final int[] COLUMNS = {0, 1, 2, 3, 4, 5, 6};
+
+    private final String[][] rows = new String[ORBITS][];
+    private final BodyProperties[] bodies = new BodyProperties[ORBITS];
+    private final OrbitalProperties[] knownValues = new OrbitalProperties[ORBITS];
+    private final PrimitiveOrbit[] primitiveKnownValues = new PrimitiveOrbit[ORBITS];
+    private final PrimitiveOrbit primitiveOrbit = new PrimitiveOrbit();
+    private final OrbitSolver solver = new OrbitSolver(null);
+    private BatchSolver batchSolver;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        BodyRegistry bodyRegistry = new BodyRegistry(Main.SYSTEM_PROPERTIES);
+        batchSolver = new BatchSolver(bodyRegistry);
+        Random random = new Random(42);
+        for (int i = 0; i < ORBITS; i++) {
+            String body = BODIES[random.nextInt(BODIES.length)];
+            String periapsis = String.valueOf(10000 + random.nextInt(500000));
+            String eccentricity = random.nextInt(10) == 0
+                    ? "" : String.format(Locale.ROOT, "%.3f", random.nextDouble() * 0.8);
+            rows[i] = new String[]{body, "", "", "", periapsis + "AS", eccentricity, "2"};
+            bodies[i] = bodyRegistry.get(body);
+            knownValues[i] = InputParser.readOrbitalProperties(null, null, null, periapsis + "AS",
+                    eccentricity.isEmpty() ? null : eccentricity, bodies[i]);
+            primitiveKnownValues[i] = new PrimitiveOrbit();
+            primitiveKnownValues[i].copyFrom(knownValues[i]);
+        }
+    }
+
+    @Benchmark
+    public OrbitStatus primitiveSolve() {
+        int i = nextOrbit();
+        primitiveOrbit.copyFrom(primitiveKnownValues[i]);
+        return PrimitiveOrbitSolver.solve(primitiveOrbit, bodies[i]);
+    }
+
+    @Benchmark
+    public OrbitStatus boxedSolve() {
+        return solveBoxed();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dorbit.metrics=true")
+    public OrbitStatus boxedSolveWithMetrics() {
+        return solveBoxed();
+    }
+
+    @Benchmark
+    public String batchRow() {
+        return batchSolver.solveRow(rows[nextOrbit()], COLUMNS, ",");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dorbit.metrics=true")
+    public String batchRowWithMetrics() {
+        return batchSolver.solveRow(rows[nextOrbit()], COLUMNS, ",");
+    }
+
+    private OrbitStatus solveBoxed() {
+        int i = nextOrbit();
+        OrbitalProperties orbitalProperties = new OrbitalProperties();
+        orbitalProperties.setPeriapsisHeight(knownValues[i].getPeriapsisHeight());
+        if (knownValues[i].getEccentricity() != null) {
+            orbitalProperties.setEccentricity(knownValues[i].getEccentricity());
+        }
+        return solver.solve(bodies[i], orbitalProperties);
+    }
+
+    private int nextOrbit() {
+        next = (next + 1) & (ORBITS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,143 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip latency of {@link OrbitServer} requests, from sending a request line to reading its response, sampled
+ * so the percentiles are reported. Each benchmark thread (-t) holds its own connection. Every request has random
+ * values, so the cache hardly ever answers one; cacheSize=0 runs the server without a cache. The server runs in
+ * process on a free port unless -p port=... names a running one.
+ * <p>
+ * Measured on JDK 17 with one core and one thread: p50 15.4 us, p99 34.8 us without a cache; p50 15.8 us, p99
+ * 37.6 us with the default cache, which nearly every request misses.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrbitServerBenchmark {
+
+    private static final String[] BODIES = {"kerbin", "mun", "minmus"};
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"0", "65536"})
+        public int cacheSize;
+
+        @Param({"0"})
+        public int port;
+
+        private OrbitServer server;
+
+        @Setup
+        public void setUp() throws IOException {
+            if (port != 0) {
+                return;
+            }
+            server = new OrbitServer(new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES),
+                    cacheSize > 0 ? new OrbitCache(cacheSize) : null), 0);
+            server.warmUp();
+            OrbitServer running = server;
+            Thread acceptor = new Thread(() -> {
+                try {
+                    running.serve();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            port = server.getPort();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            if (server != null) {
+                System.out.println("Cache: " + server.respond(OrbitServer.STATS));
+                server.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+
+        private Socket socket;
+        private BufferedReader input;
+        private Writer output;
+        private Random random;
+
+        @Setup
+        public void setUp(Server server, ThreadParams threadParams) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.port);
+            socket.setTcpNoDelay(true);
+            input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            output = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            random = new Random(threadParams.getThreadIndex());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Benchmark
+    public String request(Connection connection) throws IOException {
+        connection.output.write(request(connection.random));
+        connection.output.write('\n');
+        connection.output.flush();
+        String response = connection.input.readLine();
+        if (response == null) {
+            throw new IOException("Connection closed by the server");
+        }
+        return response;
+    }
+
+    /**
+     * @return a query of one of the solver's input combinations with random values, so that hardly any two
+     * requests of a run are the same and the server cache cannot answer them
+     */
+    static String request(Random random) {
+        String body = "body=" + BODIES[random.nextInt(BODIES.length)];
+        switch (random.nextInt(5)) {
+            case 0:
+                return body + ";T=" + (30 + random.nextInt(600)) + "m " + random.nextInt(60) + "s;precision=2";
+            case 1:
+                return body + ";a=" + (700_000 + random.nextInt(5_000_000));
+            case 2:
+                int periapsis = 20_000 + random.nextInt(500_000);
+                return body + ";rA=" + (periapsis + random.nextInt(2_000_000)) + "AS;rP=" + periapsis + "AS";
+            case 3:
+                return body + ";rP=" + (20_000 + random.nextInt(500_000)) + "AS;e=0." + random.nextInt(1000);
+            default:
+                return body + ";rA=" + (10_000 + random.nextInt(5_000_000)) + "AS";
+        }
+    }
+}
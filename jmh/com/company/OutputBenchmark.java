@@ -0,0 +1,100 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text output of {@link Main#print} and the {@link OrbitResultWriter} formats, with the output discarded so only
+ * the formatting is measured. stringFormat is the String.format based print that the writer replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputBenchmark {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private PrintStream standardOut;
+    private BodyProperties kerbin;
+    private OrbitalProperties orbitalProperties;
+    private final PrimitiveOrbit orbit = new PrimitiveOrbit();
+    private final OrbitResultWriter textWriter = new OrbitResultWriter(DISCARD, OrbitResultWriter.Format.TEXT);
+    private final OrbitResultWriter csvWriter = new OrbitResultWriter(DISCARD, OrbitResultWriter.Format.CSV);
+    private final OrbitResultWriter binaryWriter = new OrbitResultWriter(DISCARD, OrbitResultWriter.Format.BINARY);
+
+    @Setup
+    public void setUp() throws IOException {
+        kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        orbitalProperties = InputParser.readOrbitalProperties("1h 30m", null, null, "100,000AS", null, kerbin);
+        new OrbitSolver(null).calculateUnknownValues(kerbin, orbitalProperties);
+        orbit.copyFrom(InputParser.readOrbitalProperties("1h 30m", null, null, "100,000AS", null, kerbin));
+        PrimitiveOrbitSolver.solve(orbit, kerbin);
+        Main.orbitalProperties = orbitalProperties;
+        Main.resultPrecision = "2";
+        standardOut = System.out;
+        System.setOut(new PrintStream(DISCARD));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(standardOut);
+    }
+
+    @Benchmark
+    public void print() throws IOException {
+        Main.print();
+    }
+
+    @Benchmark
+    public void stringFormat() {
+        String numberFormat = "." + Main.resultPrecision + "f";
+        System.out.println("Orbital Period\t\t" + Math.round(orbitalProperties.getOrbitalPeriod()));
+        System.out.println(
+                String.format("Semi-Major Axis\t\t%," + numberFormat + " m", orbitalProperties.getSemiMajorAxis()));
+        System.out.println(String.format("Apoapsis\t\t\t%," + numberFormat + " m (%," + numberFormat + " m)",
+                orbitalProperties.getApoapsisHeight(), orbitalProperties.getApoapsisHeightAS()));
+        System.out.println(String.format("Periapsis\t\t\t%," + numberFormat + " m (%," + numberFormat + " m)",
+                orbitalProperties.getPeriapsisHeight(), orbitalProperties.getPeriapsisHeightAS()));
+        System.out.println(String.format("Eccentricity\t\t%.4f", orbitalProperties.getEccentricity()));
+    }
+
+    @Benchmark
+    public void writeText() throws IOException {
+        textWriter.write(kerbin, orbit, OrbitStatus.SOLVED, orbit.getKnown(), 2);
+    }
+
+    @Benchmark
+    public void writeCsv() throws IOException {
+        csvWriter.write(kerbin, orbit, OrbitStatus.SOLVED, orbit.getKnown(), 2);
+    }
+
+    @Benchmark
+    public void writeBinary() throws IOException {
+        binaryWriter.write(kerbin, orbit, OrbitStatus.SOLVED, orbit.getKnown(), 2);
+    }
+}
@@ -0,0 +1,106 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParallelBatchSolver} throughput in rows per second at each parallelism level; pass -p parallelism=... to
+ * go up to the number of cores of the machine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelScalingBenchmark {
+
+    private static final String[] BODIES = {"kerbin", "mun", "minmus"};
+    private static final int ROWS = 100000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private String input;
+    private ParallelBatchSolver solver;
+
+    @Setup
+    public void setUp() throws IOException {
+        input = generateInput();
+        solver = new ParallelBatchSolver(new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES)), parallelism,
+                ParallelBatchSolver.DEFAULT_CHUNK_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void solve() throws IOException {
+        solver.solve(new BufferedReader(new StringReader(input)), new DiscardingWriter());
+    }
+
+    private static String generateInput() {
+        Random random = new Random(42);
+        StringBuilder input = new StringBuilder("body\tT\ta\trA\trP\te\tprecision\n");
+        for (int i = 0; i < ROWS; i++) {
+            String body = BODIES[random.nextInt(BODIES.length)];
+            switch (random.nextInt(4)) {
+                case 0:
+                    input.append(body).append('\t').append(1 + random.nextInt(5)).append("h ")
+                            .append(random.nextInt(60)).append("m\t\t\t\t\t\n");
+                    break;
+                case 1:
+                    input.append(body).append("\t\t\t").append(100000 + random.nextInt(900000)).append("AS\t")
+                            .append(80000 + random.nextInt(20000)).append("AS\t\t2\n");
+                    break;
+                case 2:
+                    input.append(body).append("\t\t\t\t").append(90000 + random.nextInt(50000)).append("AS\t0.")
+                            .append(random.nextInt(9)).append("\t\n");
+                    break;
+                default:
+                    input.append(body).append('\t').append(2 + random.nextInt(3)).append("h\t\t\t\t\t\n");
+            }
+        }
+        return input.toString();
+    }
+
+    private static class DiscardingWriter extends Writer {
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String string) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
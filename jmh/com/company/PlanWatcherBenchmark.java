@@ -0,0 +1,100 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solving a whole plan of random kerbin orbits with a new {@link PlanWatcher}, which includes reading
+ * system.properties, against re-solving it after a single row edit, with the edited file written to disk before each
+ * edit as an editor would. Edits are sampled, so their percentiles are reported too.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlanWatcherBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private final Random random = new Random(42);
+    private final List<String> lines = new ArrayList<>();
+    private final PrintStream discard = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+    });
+    private Path plan;
+    private PlanWatcher watcher;
+
+    @Setup
+    public void setUp() throws IOException {
+        lines.add("body,rP,e,precision");
+        for (int i = 0; i < rows; i++) {
+            lines.add(randomRow());
+        }
+        plan = Files.createTempFile("plan", ".csv");
+        Files.write(plan, lines);
+        watcher = new PlanWatcher(Main.SYSTEM_PROPERTIES, Collections.singletonList(plan), discard);
+        watcher.solveAll();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(plan);
+    }
+
+    /**
+     * Changes one row of the plan on disk, outside the timed part of {@link #oneRowEdit}.
+     */
+    @Setup(Level.Invocation)
+    public void editRow() throws IOException {
+        lines.set(1 + random.nextInt(rows), randomRow());
+        Files.write(plan, lines);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public PlanWatcher fullSolve() throws IOException {
+        // a watcher only re-solves the rows that changed since it last read the plan, so each run needs a new one
+        PlanWatcher fresh = new PlanWatcher(Main.SYSTEM_PROPERTIES, Collections.singletonList(plan), discard);
+        fresh.solveAll();
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public PlanWatcher oneRowEdit() {
+        watcher.refresh(plan);
+        return watcher;
+    }
+
+    private String randomRow() {
+        return String.format(Locale.ROOT, "kerbin,%.0f,%.4f,2", 80000 + random.nextDouble() * 1e7,
+                random.nextDouble() * 0.5);
+    }
+}
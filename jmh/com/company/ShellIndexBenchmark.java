@@ -0,0 +1,133 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShellIndex} on a fleet of random orbits around kerbin: bulk load, an insert and delete pair, altitude band
+ * queries against a linear scan of the same shells, per-orbit overlap queries and the pair sweep.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShellIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int CHECKED_QUERIES = 64;
+
+    @Param({"1000000"})
+    public int orbits;
+
+    private int[] ids;
+    private double[] periapsis;
+    private double[] apoapsis;
+    private final double[] bandLow = new double[QUERIES];
+    private final double[] bandHigh = new double[QUERIES];
+    private final ShellIndex index = new ShellIndex(new Random(1));
+    private final ShellIndex loaded = new ShellIndex(new Random(1));
+    private final Random random = new Random(7);
+    private int query;
+
+    @Setup
+    public void setUp() throws IOException {
+        BodyProperties kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        Random random = new Random(42);
+        ids = new int[orbits];
+        periapsis = new double[orbits];
+        apoapsis = new double[orbits];
+        for (int i = 0; i < orbits; i++) {
+            ids[i] = i;
+            periapsis[i] = PrimitiveOrbitSolver.minimumPeriapsis(kerbin) + random.nextDouble() * 20e6;
+            // mostly near-circular parking orbits with a tail of eccentric ones
+            double eccentricity = random.nextInt(100) == 0 ? 0.3 * random.nextDouble() : 0.002 * random.nextDouble();
+            apoapsis[i] = periapsis[i] * (1 + eccentricity);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            bandLow[i] = kerbin.getRadius() + random.nextDouble() * 20e6;
+            bandHigh[i] = bandLow[i] + 1000 + random.nextDouble() * 10000;
+        }
+        index.bulkLoad(ids, periapsis, apoapsis, orbits);
+        for (int i = 0; i < CHECKED_QUERIES; i++) {
+            long scanned = scanCrossing(bandLow[i], bandHigh[i]);
+            if (index.countCrossing(bandLow[i], bandHigh[i]) != scanned) {
+                throw new IllegalStateException("Index and scan disagree on band " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ShellIndex bulkLoad() {
+        loaded.bulkLoad(ids, periapsis, apoapsis, orbits);
+        return loaded;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean deleteAndInsert() {
+        int id = random.nextInt(orbits);
+        boolean deleted = index.delete(id);
+        index.insert(id, periapsis[id], apoapsis[id]);
+        return deleted;
+    }
+
+    @Benchmark
+    public int bandQuery() {
+        int i = nextQuery();
+        return index.countCrossing(bandLow[i], bandHigh[i]);
+    }
+
+    /**
+     * The linear scan the index replaces, as the baseline for {@link #bandQuery}.
+     */
+    @Benchmark
+    public long bandScan() {
+        int i = nextQuery();
+        return scanCrossing(bandLow[i], bandHigh[i]);
+    }
+
+    @Benchmark
+    public void overlapQuery(Blackhole blackhole) {
+        index.overlapping(random.nextInt(orbits), blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long overlapPairs() {
+        long[] pairs = new long[1];
+        index.overlappingPairs((first, second) -> pairs[0]++);
+        return pairs[0];
+    }
+
+    private int nextQuery() {
+        query = (query + 1) & (QUERIES - 1);
+        return query;
+    }
+
+    private long scanCrossing(double low, double high) {
+        long matches = 0;
+        for (int j = 0; j < orbits; j++) {
+            if (periapsis[j] <= high && apoapsis[j] >= low) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
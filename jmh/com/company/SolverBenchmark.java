@@ -0,0 +1,123 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One orbit solved through each branch of {@link OrbitSolver#calculateUnknownValues}, on the boxed and primitive
+ * engines and a batch of them stored in {@link OrbitColumns}. The branch parameter names the known values, e.g.
+ * "T+e" is orbital period plus eccentricity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"T", "a", "T+e", "T+rA", "T+rP", "a+e", "a+rA", "a+rP", "rA+rP", "e+rA", "e+rP", "rA", "rP"})
+    public String branch;
+
+    private BodyProperties kerbin;
+    private OrbitalProperties knownValues;
+    private final OrbitSolver orbitSolver = new OrbitSolver(null);
+    private final PrimitiveOrbit primitiveKnownValues = new PrimitiveOrbit();
+    private final PrimitiveOrbit primitiveOrbit = new PrimitiveOrbit();
+    private final OrbitColumns columns = new OrbitColumns(BATCH);
+
+    @Setup
+    public void setUp() throws IOException {
+        kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        String orbitalPeriod = null;
+        String semiMajorAxis = null;
+        String apoapsisHeight = null;
+        String periapsisHeight = null;
+        String eccentricity = null;
+        for (String value : branch.split("\\+")) {
+            switch (value) {
+                case "T":
+                    orbitalPeriod = "2h";
+                    break;
+                case "a":
+                    semiMajorAxis = "1,600,000";
+                    break;
+                case "rA":
+                    apoapsisHeight = "1,900,000AS";
+                    break;
+                case "rP":
+                    periapsisHeight = "250,000AS";
+                    break;
+                case "e":
+                    eccentricity = "0.1";
+                    break;
+            }
+        }
+        knownValues = InputParser.readOrbitalProperties(orbitalPeriod, semiMajorAxis, apoapsisHeight,
+                periapsisHeight, eccentricity, kerbin);
+        primitiveKnownValues.copyFrom(knownValues);
+    }
+
+    /**
+     * Refills the columns with the known values only, so every call solves and validates a fresh batch rather than
+     * one the previous call already solved.
+     */
+    @Setup(Level.Invocation)
+    public void fillColumns() {
+        columns.clear();
+        for (int i = 0; i < BATCH; i++) {
+            columns.add(primitiveKnownValues);
+        }
+    }
+
+    @Benchmark
+    public OrbitalProperties boxed() {
+        OrbitalProperties orbitalProperties = new OrbitalProperties();
+        if (knownValues.getOrbitalPeriod() != null) {
+            orbitalProperties.setOrbitalPeriod(knownValues.getOrbitalPeriod());
+        }
+        if (knownValues.getSemiMajorAxis() != null) {
+            orbitalProperties.setSemiMajorAxis(knownValues.getSemiMajorAxis());
+        }
+        if (knownValues.getApoapsisHeight() != null) {
+            orbitalProperties.setApoapsisHeight(knownValues.getApoapsisHeight());
+        }
+        if (knownValues.getPeriapsisHeight() != null) {
+            orbitalProperties.setPeriapsisHeight(knownValues.getPeriapsisHeight());
+        }
+        if (knownValues.getEccentricity() != null) {
+            orbitalProperties.setEccentricity(knownValues.getEccentricity());
+        }
+        orbitSolver.calculateUnknownValues(kerbin, orbitalProperties);
+        return orbitalProperties;
+    }
+
+    @Benchmark
+    public OrbitStatus primitive() {
+        primitiveOrbit.copyFrom(knownValues);
+        return PrimitiveOrbitSolver.solve(primitiveOrbit, kerbin);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public OrbitColumns columns() {
+        columns.solve(kerbin);
+        return columns;
+    }
+}
@@ -0,0 +1,59 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single cold run of the command line calculator in a fresh JVM per fork, so class loading, reading both
+ * properties files and the first solve are all included. Needs resources/known_values.properties to exist.
+ * Main reads resources/system.catalog instead of system.properties if it has been compiled with compile-catalog.
+ * JVM startup itself is not included; {@link StartupTimeBenchmark} times whole processes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private PrintStream standardOut;
+
+    @Setup
+    public void setUp() {
+        if (!new File("resources/known_values.properties").exists()) {
+            throw new IllegalStateException("resources/known_values.properties is needed for the startup benchmark");
+        }
+        standardOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(standardOut);
+    }
+
+    @Benchmark
+    public void coldMain() throws IOException {
+        Main.main(new String[0]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock time of whole command line runs, each in a new JVM as a script would start them, so unlike
+ * {@link StartupBenchmark} JVM startup is included. {@link Main} is run with the body catalog compiled or with only
+ * system.properties to parse, from the benchmark's own class path or from -p jar=... with -p archive=... to use the
+ * jar and AppCDS archive from scripts/appcds.sh. Run from the project directory with
+ * resources/known_values.properties in place.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupTimeBenchmark {
+
+    // Redirect.DISCARD is Java 9 and later
+    private static final File NULL_FILE =
+            new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    /**
+     * "compiled" to read resources/system.catalog, "properties" to delete it so system.properties is parsed.
+     */
+    @Param({"compiled", "properties"})
+    public String catalog;
+
+    /**
+     * "tiered" for the default compilers, "C1" to stop at the client compiler.
+     */
+    @Param({"tiered", "C1"})
+    public String compiler;
+
+    @Param({""})
+    public String jar;
+
+    @Param({""})
+    public String archive;
+
+    private List<String> command;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("compiled".equals(catalog)) {
+            CatalogCompiler.main(new String[0]);
+        } else {
+            Files.deleteIfExists(Paths.get(CatalogCompiler.COMPILED_CATALOG));
+        }
+        command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add(archive.isEmpty() ? "-Xshare:auto" : "-XX:SharedArchiveFile=" + archive);
+        if ("C1".equals(compiler)) {
+            command.add("-XX:TieredStopAtLevel=1");
+        }
+        command.add("-cp");
+        command.add(jar.isEmpty() ? System.getProperty("java.class.path") : jar);
+        command.add(Main.class.getName());
+    }
+
+    @Benchmark
+    public int run() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.to(NULL_FILE))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Exit code " + exitCode + " from " + command);
+        }
+        return exitCode;
+    }
+}
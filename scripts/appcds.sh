@@ -0,0 +1,23 @@
+#!/bin/sh
+# Compiles the body catalog, which Main then reads instead of parsing system.properties, packs the classes into a
+# jar and records an AppCDS archive of the classes Main loads, so later runs map them from the archive instead of
+# loading and verifying them. Class data sharing only works from jars, not class directories. Needs JDK 13 or later
+# and, for the training run, resources/known_values.properties. Run from the project directory after compiling src into <classes dir>, and
+# again whenever the classes change; the JVM ignores an archive that no longer matches the jar.
+# Usage: scripts/appcds.sh <classes dir> [<jar file> [<archive file>]]
+set -e
+if [ -z "$1" ]; then
+    echo "Usage: $0 <classes dir> [<jar file> [<archive file>]]" >&2
+    exit 1
+fi
+CLASSES=$1
+JAR=${2:-orbit-cli.jar}
+ARCHIVE=${3:-orbit-cli.jsa}
+if [ ! -f resources/known_values.properties ]; then
+    echo "resources/known_values.properties is needed for the training run" >&2
+    exit 1
+fi
+java -cp "$CLASSES" com.company.Main compile-catalog
+jar cf "$JAR" -C "$CLASSES" .
+java -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$JAR" com.company.Main > /dev/null
+echo "Run with: java -XX:SharedArchiveFile=$ARCHIVE -XX:TieredStopAtLevel=1 -cp $JAR com.company.Main"
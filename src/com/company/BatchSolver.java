@@ -0,0 +1,276 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+
+/**
+ * Solves a CSV or TSV file of known values one row at a time, writing one solved row per input row.
+ * The first line is a header naming the columns (body, T, a, rA, rP, e, precision, in any order and any of
+ * them optional); a tab anywhere in the header switches the delimiter from comma to tab. Values use the same
+ * notation as known_values.properties, so heights with thousands separators need the tab delimited form.
+ * {@link #solveRow} is safe to call from several threads at once. Given an {@link OrbitCache}, repeated queries
+ * are answered from it instead of being solved again.
+ */
+public class BatchSolver {
+
+    static final String[] INPUT_COLUMNS = {"body", "T", "a", "rA", "rP", "e", "precision"};
+    static final String[] OUTPUT_COLUMNS = {"body", "T", "a", "rA", "rP", "rA_AS", "rP_AS", "e", "result"};
+    static final String SOLVED = "OK";
+    static final String INVALID_INPUT = "Invalid input";
+    static final int BODY = 0;
+    private static final int ORBITAL_PERIOD = 1;
+    private static final int SEMI_MAJOR_AXIS = 2;
+    private static final int APOAPSIS = 3;
+    static final int PERIAPSIS = 4;
+    private static final int ECCENTRICITY = 5;
+    static final int PRECISION = 6;
+
+    private final BodyRegistry bodyRegistry;
+    private final OrbitSolver solver = new OrbitSolver(null);
+    private final OrbitCache cache;
+    private final RejectionReport report = new RejectionReport();
+
+    BatchSolver(BodyRegistry bodyRegistry) {
+        this(bodyRegistry, null);
+    }
+
+    BatchSolver(BodyRegistry bodyRegistry, OrbitCache cache) {
+        this.bodyRegistry = bodyRegistry;
+        this.cache = cache;
+    }
+
+    /**
+     * @return the outcome of every row solved so far
+     */
+    public RejectionReport getReport() {
+        return report;
+    }
+
+    public BodyRegistry getBodyRegistry() {
+        return bodyRegistry;
+    }
+
+    public OrbitCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Prints the report, and the cache hit and miss counts if there is a cache.
+     */
+    void printReport(PrintStream output) {
+        report.print(output);
+        if (cache != null) {
+            output.println("Cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+        }
+    }
+
+    /**
+     * Usage: batch &lt;input file&gt; [&lt;output file&gt;]; results go to standard out if no output file is given.
+     * Repeated rows are answered from an {@link OrbitCache} when the JVM is started with
+     * -Dorbit.cache.size=&lt;entries&gt;.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: batch <input file> [<output file>]");
+            return;
+        }
+        BatchSolver batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES),
+                OrbitCache.fromSystemProperty(0));
+        try (BufferedReader input = new BufferedReader(new FileReader(args[1]));
+             Writer output = new BufferedWriter(
+                     args.length > 2 ? new FileWriter(args[2]) : new OutputStreamWriter(System.out))) {
+            batchSolver.solve(input, output);
+        }
+        batchSolver.printReport(System.err);
+    }
+
+    public void solve(BufferedReader input, Writer output) throws IOException {
+        String header = input.readLine();
+        if (header == null) {
+            return;
+        }
+        String delimiter = findDelimiter(header);
+        int[] columns = findColumns(header.split(delimiter, -1));
+        writeHeader(output, delimiter);
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            output.write(solveRow(line.split(delimiter, -1), columns, delimiter));
+            output.write(System.lineSeparator());
+        }
+        output.flush();
+    }
+
+    /**
+     * Solves one row and records its outcome in the report, once the result row has been made. A row that throws is
+     * not recorded, so it is up to the caller that turns the exception into a result to record it.
+     */
+    String solveRow(String[] values, int[] columns, String delimiter) {
+        String body = value(values, columns[BODY]);
+        long start = SolverMetrics.start();
+        BodyProperties bodyProperties = bodyRegistry.get(body);
+        SolverMetrics.record(SolverMetrics.Stage.BODY_LOOKUP, SolverMetrics.NO_BRANCH,
+                bodyProperties != null ? OrbitStatus.SOLVED : OrbitStatus.REFERENCE_BODY_MISSING, start);
+        if (bodyProperties == null) {
+            report.record(OrbitStatus.REFERENCE_BODY_MISSING);
+            return unsolvedRow(body, delimiter, OrbitStatus.REFERENCE_BODY_MISSING.getMessage());
+        }
+        try {
+            start = SolverMetrics.start();
+            OrbitalProperties orbitalProperties = readOrbitalProperties(values, columns, bodyProperties);
+            int precision = readPrecision(value(values, columns[PRECISION]));
+            SolverMetrics.record(SolverMetrics.Stage.PARSE, SolverMetrics.NO_BRANCH, OrbitStatus.SOLVED, start);
+            SolvedOrbit solvedOrbit = cache != null
+                    ? cache.get(new OrbitQuery(bodyProperties, orbitalProperties),
+                            query -> solve(bodyProperties, orbitalProperties))
+                    : solve(bodyProperties, orbitalProperties);
+            if (!solvedOrbit.isSolved()) {
+                report.record(solvedOrbit.getStatus());
+                return unsolvedRow(body, delimiter, solvedOrbit.getRejection());
+            }
+            start = SolverMetrics.start();
+            // the row is CSV or TSV, so the decimal separator must not follow the default locale
+            StringBuilder row = new StringBuilder(128).append(body).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getOrbitalPeriod(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getSemiMajorAxis(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getApoapsisHeight(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getPeriapsisHeight(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getApoapsisHeightAS(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getPeriapsisHeightAS(), precision).append(delimiter);
+            OrbitResultWriter.appendFixed(row, solvedOrbit.getEccentricity(), 4).append(delimiter).append(SOLVED);
+            SolverMetrics.record(SolverMetrics.Stage.OUTPUT, SolverMetrics.NO_BRANCH, OrbitStatus.SOLVED, start);
+            report.record(OrbitStatus.SOLVED);
+            return row.toString();
+        } catch (ImpossibleOrbitException e) {
+            // apoapsis and periapsis both given the wrong way round
+            SolverMetrics.record(SolverMetrics.Stage.PARSE, SolverMetrics.NO_BRANCH,
+                    OrbitStatus.APOAPSIS_BELOW_PERIAPSIS, start);
+            report.record(OrbitStatus.APOAPSIS_BELOW_PERIAPSIS);
+            return unsolvedRow(body, delimiter, e.getMessage());
+        } catch (RecalculationException | NumberFormatException e) {
+            SolverMetrics.record(SolverMetrics.Stage.PARSE, SolverMetrics.NO_BRANCH, null, start);
+            report.recordInvalidInput();
+            return unsolvedRow(body, delimiter, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses and solves one row like {@link #solveRow}, but hands back the solved values rather than formatting them.
+     * The outcome is recorded in the report either way.
+     *
+     * @return the solved orbit, or null if the row could not be solved
+     */
+    OrbitalProperties solveOrbit(String[] values, int[] columns) {
+        BodyProperties bodyProperties = bodyRegistry.get(value(values, columns[BODY]));
+        if (bodyProperties == null) {
+            report.record(OrbitStatus.REFERENCE_BODY_MISSING);
+            return null;
+        }
+        try {
+            OrbitalProperties orbitalProperties = readOrbitalProperties(values, columns, bodyProperties);
+            OrbitStatus status = solver.solve(bodyProperties, orbitalProperties);
+            report.record(status);
+            return status == OrbitStatus.SOLVED ? orbitalProperties : null;
+        } catch (ImpossibleOrbitException e) {
+            report.record(OrbitStatus.APOAPSIS_BELOW_PERIAPSIS);
+            return null;
+        } catch (RecalculationException | NumberFormatException e) {
+            report.recordInvalidInput();
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of decimal places to write, 0 if none is given
+     * @throws NumberFormatException if the precision is not a whole number of places
+     */
+    static int readPrecision(String precision) {
+        if (precision == null) {
+            return 0;
+        }
+        try {
+            int places = Integer.parseInt(precision);
+            if (places >= 0) {
+                return places;
+            }
+        } catch (NumberFormatException e) {
+            // reported below with the column name
+        }
+        throw new NumberFormatException("Invalid precision: " + precision);
+    }
+
+    private static OrbitalProperties readOrbitalProperties(String[] values, int[] columns,
+                                                           BodyProperties bodyProperties) {
+        return InputParser.readOrbitalProperties(
+                value(values, columns[ORBITAL_PERIOD]), value(values, columns[SEMI_MAJOR_AXIS]),
+                value(values, columns[APOAPSIS]), value(values, columns[PERIAPSIS]),
+                value(values, columns[ECCENTRICITY]), bodyProperties);
+    }
+
+    /**
+     * Solves parsed known values, turning a rejection into a result rather than an exception so it can be cached.
+     */
+    private SolvedOrbit solve(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        OrbitStatus status = solver.solve(bodyProperties, orbitalProperties);
+        if (status != OrbitStatus.SOLVED) {
+            return SolvedOrbit.rejected(status, OrbitSolver.describe(status, orbitalProperties));
+        }
+        return SolvedOrbit.of(orbitalProperties);
+    }
+
+    static String findDelimiter(String header) {
+        return header.indexOf('\t') >= 0 ? "\t" : ",";
+    }
+
+    static void writeHeader(Writer output, String delimiter) throws IOException {
+        output.write(String.join(delimiter, OUTPUT_COLUMNS));
+        output.write(System.lineSeparator());
+    }
+
+    static int[] findColumns(String[] header) {
+        int[] columns = new int[INPUT_COLUMNS.length];
+        for (int i = 0; i < INPUT_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.length; j++) {
+                if (header[j].trim().equals(INPUT_COLUMNS[i])) {
+                    columns[i] = j;
+                }
+            }
+        }
+        return columns;
+    }
+
+    static String value(String[] values, int column) {
+        if (column < 0 || column >= values.length) {
+            return null;
+        }
+        String value = values[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * The result of a row that failed in a way no reason was made for. The row gets the same kind of reason as
+     * unreadable input, while the exception is logged to standard error rather than written into the results.
+     */
+    static String failedRow(String body, String delimiter, RuntimeException e) {
+        System.err.println("Failed to solve a row for " + body + ":");
+        e.printStackTrace();
+        return unsolvedRow(body, delimiter, INVALID_INPUT);
+    }
+
+    static String unsolvedRow(String body, String delimiter, String reason) {
+        StringBuilder row = new StringBuilder(body != null ? body : "");
+        for (int i = 1; i < OUTPUT_COLUMNS.length; i++) {
+            row.append(delimiter);
+        }
+        return row.append(reason).toString();
+    }
+}
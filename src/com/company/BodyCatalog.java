@@ -0,0 +1,179 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Every body in a system.properties file, parsed once. Ids are assigned in alphabetical order of body name, so they
+ * are stable for as long as the set of bodies does not change. A body with a "parent" key orbits that body at the
+ * distance given by its "sma" key, which puts the bodies in a tree such as kerbol, kerbin, then mun and minmus.
+ */
+public class BodyCatalog {
+
+    private static final String MASS_SUFFIX = ".mass";
+    private static final String PARENT_SUFFIX = ".parent";
+    private static final String SMA_SUFFIX = ".sma";
+    private static final int COMPILED_MAGIC = 0x4f524243;
+    private static final int COMPILED_VERSION = 2;
+
+    private final Map<String, BodyProperties> bodiesByName;
+    private final BodyProperties[] bodiesById;
+
+    private BodyCatalog(BodyProperties[] bodiesById) {
+        this.bodiesById = bodiesById;
+        Map<String, BodyProperties> bodiesByName = new HashMap<>();
+        for (BodyProperties body : bodiesById) {
+            bodiesByName.put(body.getName(), body);
+        }
+        this.bodiesByName = Collections.unmodifiableMap(bodiesByName);
+    }
+
+    static BodyCatalog load(Properties systemProperties) {
+        List<String> names = new ArrayList<>();
+        for (String key : systemProperties.stringPropertyNames()) {
+            if (key.endsWith(MASS_SUFFIX)) {
+                names.add(key.substring(0, key.length() - MASS_SUFFIX.length()));
+            }
+        }
+        Collections.sort(names);
+        BodyProperties[] bodies = new BodyProperties[names.size()];
+        for (int id = 0; id < bodies.length; id++) {
+            load(systemProperties, names, bodies, id, 0);
+        }
+        return new BodyCatalog(bodies);
+    }
+
+    /**
+     * Loads a body after its parent, so that every body can hold a reference to the body it orbits.
+     */
+    private static BodyProperties load(Properties systemProperties, List<String> names, BodyProperties[] bodies,
+                                       int id, int depth) {
+        if (bodies[id] != null) {
+            return bodies[id];
+        }
+        String body = names.get(id);
+        if (depth > names.size()) {
+            throw new IllegalArgumentException("Parents of " + body + " form a cycle");
+        }
+        Double mass = InputParser.calculateValue(systemProperties.getProperty(body + ".mass"));
+        Double radius = InputParser.calculateValue(systemProperties.getProperty(body + ".radius"));
+        Double atmosphere = InputParser.calculateValue(systemProperties.getProperty(body + ".atmosphere"));
+        Double soi = InputParser.calculateValue(systemProperties.getProperty(body + ".soi"));
+        String parentName = systemProperties.getProperty(body + PARENT_SUFFIX);
+        BodyProperties parent = null;
+        Double orbitSemiMajorAxis = null;
+        if (parentName != null) {
+            int parentId = names.indexOf(parentName);
+            if (parentId < 0) {
+                throw new IllegalArgumentException("Unknown parent " + parentName + " of " + body);
+            }
+            parent = load(systemProperties, names, bodies, parentId, depth + 1);
+            orbitSemiMajorAxis = InputParser.calculateValue(systemProperties.getProperty(body + SMA_SUFFIX));
+        }
+        bodies[id] = new BodyProperties(body, id, mass, radius, atmosphere, soi, parent, orbitSemiMajorAxis);
+        return bodies[id];
+    }
+
+    /**
+     * Reads the catalog that {@link CatalogCompiler} compiled from a system.properties file, or parses the properties
+     * file itself if the compiled catalog is missing, from another version, or was compiled from a properties file of
+     * a different length or modification time.
+     */
+    static BodyCatalog loadCompiled(String propertiesPath, String catalogPath) throws IOException {
+        File properties = new File(propertiesPath);
+        File compiled = new File(catalogPath);
+        if (compiled.isFile()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(compiled)))) {
+                if (input.readInt() == COMPILED_MAGIC && input.readInt() == COMPILED_VERSION
+                        && input.readLong() == properties.length() && input.readLong() == properties.lastModified()) {
+                    return read(input);
+                }
+            }
+        }
+        return load(Main.loadProperties(propertiesPath));
+    }
+
+    /**
+     * Reads the bodies of a catalog written by {@link #write}, after its header.
+     */
+    private static BodyCatalog read(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        String[] names = new String[size];
+        double[][] values = new double[size][];
+        int[] parentIds = new int[size];
+        for (int id = 0; id < size; id++) {
+            names[id] = input.readUTF();
+            values[id] = new double[]{input.readDouble(), input.readDouble(), input.readDouble(), input.readDouble(),
+                    input.readDouble()};
+            parentIds[id] = input.readInt();
+        }
+        BodyProperties[] bodies = new BodyProperties[size];
+        for (int id = 0; id < size; id++) {
+            read(names, values, parentIds, bodies, id, 0);
+        }
+        return new BodyCatalog(bodies);
+    }
+
+    private static BodyProperties read(String[] names, double[][] values, int[] parentIds, BodyProperties[] bodies,
+                                       int id, int depth) throws IOException {
+        if (bodies[id] != null) {
+            return bodies[id];
+        }
+        if (depth > names.length || parentIds[id] >= names.length) {
+            throw new IOException("Invalid parent of " + names[id] + " in compiled body catalog");
+        }
+        double[] body = values[id];
+        BodyProperties parent = parentIds[id] >= 0 ? read(names, values, parentIds, bodies, parentIds[id], depth + 1)
+                : null;
+        bodies[id] = new BodyProperties(names[id], id, body[0], body[1], body[2], body[3], parent,
+                parent != null ? body[4] : null);
+        return bodies[id];
+    }
+
+    /**
+     * Writes the catalog in the binary form {@link #loadCompiled} takes: a header of magic number, version and the
+     * length and modification time of the properties file it was compiled from, then every body in id order with
+     * its values and the id of its parent, or -1.
+     */
+    void write(DataOutputStream output, long sourceLength, long sourceModified) throws IOException {
+        output.writeInt(COMPILED_MAGIC);
+        output.writeInt(COMPILED_VERSION);
+        output.writeLong(sourceLength);
+        output.writeLong(sourceModified);
+        output.writeInt(bodiesById.length);
+        for (BodyProperties body : bodiesById) {
+            output.writeUTF(body.getName());
+            output.writeDouble(body.getMass());
+            output.writeDouble(body.getRadius());
+            output.writeDouble(body.getAtmosphereThickness());
+            output.writeDouble(body.getSphereOfInfluence());
+            output.writeDouble(body.getParent() != null ? body.getOrbitSemiMajorAxis() : Double.NaN);
+            output.writeInt(body.getParent() != null ? body.getParent().getId() : -1);
+        }
+    }
+
+    /**
+     * @return the named body, or null if there is no such body
+     */
+    public BodyProperties get(String name) {
+        return name != null ? bodiesByName.get(name) : null;
+    }
+
+    public BodyProperties get(int id) {
+        return bodiesById[id];
+    }
+
+    public int size() {
+        return bodiesById.length;
+    }
+}
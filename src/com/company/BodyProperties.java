@@ -1,48 +1,128 @@
 package com.company;
 
+import java.util.Objects;
+
 public class BodyProperties {
 
-    private Double mass;
-    private Double radius;
-    private Double atmosphereThickness;
-    private Double sphereOfInfluence;
+    private final String name;
+    private final int id;
+    private final Double mass;
+    private final Double radius;
+    private final Double atmosphereThickness;
+    private final Double sphereOfInfluence;
+    private final double gravitationalParameter;
+    private final BodyProperties parent;
+    private final Double orbitSemiMajorAxis;
+    private final double orbitalPeriod;
+    private final int depth;
+
+    BodyProperties(String name, int id, Double mass, Double radius, Double atmosphereThickness,
+                   Double sphereOfInfluence) {
+        this(name, id, mass, radius, atmosphereThickness, sphereOfInfluence, null, null);
+    }
 
-    BodyProperties(Double mass, Double radius, Double atmosphereThickness, Double sphereOfInfluence) {
+    /**
+     * @param parent the body this one orbits, or null for the root of the system
+     * @param orbitSemiMajorAxis the radius of this body's (assumed circular) orbit around its parent
+     */
+    BodyProperties(String name, int id, Double mass, Double radius, Double atmosphereThickness,
+                   Double sphereOfInfluence, BodyProperties parent, Double orbitSemiMajorAxis) {
+        this.name = name;
+        this.id = id;
         this.mass = mass;
         this.radius = radius;
         this.atmosphereThickness = atmosphereThickness;
         this.sphereOfInfluence = sphereOfInfluence;
+        this.gravitationalParameter = Main.G * mass;
+        this.parent = parent;
+        this.orbitSemiMajorAxis = orbitSemiMajorAxis;
+        this.orbitalPeriod = parent != null
+                ? PrimitiveOrbitSolver.calculateTFromA(orbitSemiMajorAxis, parent.getGravitationalParameter())
+                : Double.NaN;
+        this.depth = parent != null ? parent.depth + 1 : 0;
     }
 
-    public Double getMass() {
-        return mass;
+    public String getName() {
+        return name;
     }
 
-    public void setMass(Double mass) {
-        this.mass = mass;
+    /**
+     * @return the index of this body in the {@link BodyCatalog} it was loaded into
+     */
+    public int getId() {
+        return id;
     }
 
-    public Double getRadius() {
-        return radius;
+    public Double getMass() {
+        return mass;
     }
 
-    public void setRadius(Double radius) {
-        this.radius = radius;
+    public Double getRadius() {
+        return radius;
     }
 
     public Double getAtmosphereThickness() {
         return atmosphereThickness;
     }
 
-    public void setAtmosphereThickness(Double atmosphereThickness) {
-        this.atmosphereThickness = atmosphereThickness;
-    }
-
     public Double getSphereOfInfluence() {
         return sphereOfInfluence;
     }
 
-    public void setSphereOfInfluence(Double sphereOfInfluence) {
-        this.sphereOfInfluence = sphereOfInfluence;
+    /**
+     * @return G * mass, the GM used by every period and semi-major axis calculation
+     */
+    public double getGravitationalParameter() {
+        return gravitationalParameter;
+    }
+
+    /**
+     * @return the body this one orbits, or null for the root of the system
+     */
+    public BodyProperties getParent() {
+        return parent;
+    }
+
+    /**
+     * @return the semi-major axis of this body's orbit around its parent, or null for the root of the system
+     */
+    public Double getOrbitSemiMajorAxis() {
+        return orbitSemiMajorAxis;
+    }
+
+    /**
+     * @return the period of this body's orbit around its parent, or NaN for the root of the system
+     */
+    public double getOrbitalPeriod() {
+        return orbitalPeriod;
+    }
+
+    /**
+     * @return how many parents lie between this body and the root, 0 for the root itself
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return true if this body is the other one or orbits it, directly or by orbiting one of its moons
+     */
+    public boolean isWithin(BodyProperties other) {
+        BodyProperties body = this;
+        while (body != null && body.depth > other.depth) {
+            body = body.parent;
+        }
+        return body == other;
+    }
+
+    /**
+     * @return true if both bodies have the same physical and orbital parameters and the same parent by name
+     */
+    boolean hasSameParameters(BodyProperties other) {
+        return name.equals(other.name) && Objects.equals(mass, other.mass) && Objects.equals(radius, other.radius)
+                && Objects.equals(atmosphereThickness, other.atmosphereThickness)
+                && Objects.equals(sphereOfInfluence, other.sphereOfInfluence)
+                && Objects.equals(orbitSemiMajorAxis, other.orbitSemiMajorAxis)
+                && Objects.equals(parent != null ? parent.name : null, other.parent != null ? other.parent.name : null);
     }
 }
@@ -0,0 +1,50 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link BodyCatalog} for a long-running process. {@link #reload()} parses the file again and
+ * swaps the catalog and its transfers in one step, as a single {@link TransferTable} that carries the catalog it was
+ * built from, so a caller always sees either the old or the new set of bodies and never a table of the other.
+ */
+public class BodyRegistry {
+
+    private final String path;
+    private final AtomicReference<TransferTable> snapshot = new AtomicReference<>();
+
+    BodyRegistry(String path) throws IOException {
+        this.path = path;
+        reload();
+    }
+
+    public BodyCatalog getCatalog() {
+        return snapshot.get().getCatalog();
+    }
+
+    /**
+     * @return the named body, or null if there is no such body
+     */
+    public BodyProperties get(String name) {
+        return getCatalog().get(name);
+    }
+
+    /**
+     * @return transfers between the bodies of the catalog, which {@link TransferTable#getCatalog()} returns in case
+     * it was swapped since {@link #getCatalog()} was called
+     */
+    public TransferTable getTransfers() {
+        return snapshot.get();
+    }
+
+    /**
+     * Loads the file again. The transfer table is rebuilt from the previous one, so only bodies whose parameters
+     * changed, and the bodies orbiting them, have their transfers recomputed. Reloads run one at a time so that each
+     * rebuilds from the table the one before it published.
+     */
+    public synchronized void reload() throws IOException {
+        BodyCatalog loaded = BodyCatalog.load(Main.loadProperties(path));
+        TransferTable previous = snapshot.get();
+        snapshot.set(previous != null ? previous.rebuild(loaded) : TransferTable.build(loaded));
+    }
+}
@@ -0,0 +1,199 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The notation understood by {@link InputParser}, decoded straight from bytes in a {@link ByteBuffer} into
+ * primitive doubles. Thousands separators, "h m s" durations, the "AS" above-surface suffix and the "x^y" notation
+ * of system.properties are all handled without creating Strings, each only where InputParser accepts it. Values are
+ * read from absolute positions, so the buffer's position and limit are never changed.
+ * <p>
+ * Numbers with at most 15 significant digits and a small decimal exponent are converted exactly with a single
+ * multiplication or division; anything else falls back to {@link Double#parseDouble} so results always match it.
+ */
+public class ByteInputParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private ByteInputParser() {
+    }
+
+    /**
+     * @param end exclusive
+     * @param thousandsSeparators whether commas are skipped, as InputParser does for every value but eccentricity
+     */
+    static double parseDouble(ByteBuffer buffer, int start, int end, boolean thousandsSeparators) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean pointSeen = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    digits++;
+                }
+                if (digits > MAX_FAST_DIGITS) {
+                    return parseDoubleSlowly(buffer, start, end, thousandsSeparators);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (pointSeen) {
+                    exponent--;
+                }
+            } else if (b == '.' && !pointSeen) {
+                pointSeen = true;
+            } else if (b == ',' && thousandsSeparators) {
+                // thousands separator
+            } else if ((b == 'e' || b == 'E') && anyDigit) {
+                int explicitExponent = parseExponent(buffer, i + 1, end);
+                if (explicitExponent == Integer.MIN_VALUE) {
+                    return parseDoubleSlowly(buffer, start, end, thousandsSeparators);
+                }
+                exponent += explicitExponent;
+                break;
+            } else {
+                return parseDoubleSlowly(buffer, start, end, thousandsSeparators);
+            }
+        }
+        if (!anyDigit || mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseDoubleSlowly(buffer, start, end, thousandsSeparators);
+        }
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the orbital period in seconds, as {@link InputParser#parseOrbitalPeriod}
+     */
+    static double parseOrbitalPeriod(ByteBuffer buffer, int start, int end) {
+        double numSeconds = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ' ') {
+                if (i - tokenStart > 1) {
+                    double number = parseDouble(buffer, tokenStart, i - 1, true);
+                    switch (buffer.get(i - 1)) {
+                        case 's':
+                            numSeconds += number;
+                            break;
+                        case 'm':
+                            numSeconds += number * Main.SECONDS_IN_MINUTE;
+                            break;
+                        case 'h':
+                            numSeconds += number * Main.SECONDS_IN_HOUR;
+                            break;
+                    }
+                }
+                tokenStart = i + 1;
+            }
+        }
+        return numSeconds;
+    }
+
+    /**
+     * @return the height from the centre of the body, as {@link InputParser#interpretInputHeight}
+     */
+    static double parseHeight(ByteBuffer buffer, int start, int end, BodyProperties bodyProperties) {
+        if (end - start > 2 && buffer.get(end - 2) == 'A' && buffer.get(end - 1) == 'S') {
+            return parseDouble(buffer, start, end - 2, true) + bodyProperties.getRadius();
+        }
+        return parseDouble(buffer, start, end, true);
+    }
+
+    /**
+     * @return the value of "x^y", as {@link InputParser#calculateValue}
+     */
+    static double calculateValue(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '^') {
+                return parseDouble(buffer, start, i, false) * Math.pow(10, parseDouble(buffer, i + 1, end, false));
+            }
+        }
+        throw new NumberFormatException("Not in x^y notation: " + decode(buffer, start, end));
+    }
+
+    /**
+     * @return the value, as {@link Integer#parseInt} reads it
+     */
+    static int parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("Invalid integer: " + decode(buffer, start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Invalid integer: " + decode(buffer, start, end));
+            }
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Invalid integer: " + decode(buffer, start, end));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Invalid integer: " + decode(buffer, start, end));
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return the bytes as text, only used for fallbacks, error messages and unknown body names
+     */
+    static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the exponent, or Integer.MIN_VALUE if it is not a plain integer of at most four digits
+     */
+    private static int parseExponent(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 4) {
+            return Integer.MIN_VALUE;
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return Integer.MIN_VALUE;
+            }
+            exponent = exponent * 10 + (b - '0');
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    private static double parseDoubleSlowly(ByteBuffer buffer, int start, int end, boolean thousandsSeparators) {
+        String value = decode(buffer, start, end);
+        return Double.parseDouble(thousandsSeparators ? value.replace(",", "") : value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.company;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Build step that parses system.properties once and writes the bodies in the binary form
+ * {@link BodyCatalog#loadCompiled} reads, so {@link Main} does not have to parse properties on every run.
+ * Run it again after editing system.properties; until then its length or modification time no longer match the ones
+ * recorded in the catalog, and it is parsed instead.
+ */
+public class CatalogCompiler {
+
+    static final String COMPILED_CATALOG = "resources/system.catalog";
+
+    private CatalogCompiler() {
+    }
+
+    /**
+     * Usage: compile-catalog [&lt;system properties&gt; [&lt;catalog file&gt;]]
+     */
+    public static void main(String[] args) throws IOException {
+        String properties = args.length > 1 ? args[1] : Main.SYSTEM_PROPERTIES;
+        String catalog = args.length > 2 ? args[2] : COMPILED_CATALOG;
+        // taken before parsing, so an edit made meanwhile leaves the catalog stale rather than wrong
+        File source = new File(properties);
+        long sourceLength = source.length();
+        long sourceModified = source.lastModified();
+        BodyCatalog bodyCatalog = BodyCatalog.load(Main.loadProperties(properties));
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(catalog)))) {
+            bodyCatalog.write(output, sourceLength, sourceModified);
+        }
+        System.out.println("Compiled " + bodyCatalog.size() + " bodies from " + properties + " to " + catalog);
+    }
+}
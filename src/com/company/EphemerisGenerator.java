@@ -0,0 +1,146 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Samples solved orbits at fixed time steps from periapsis, streaming true anomaly, radius, altitude and speed to an
+ * {@link EphemerisSink} without keeping any samples. Kepler's equation is solved by Newton's method, starting each
+ * sample from the previous sample's eccentric anomaly advanced by one step, so a couple of iterations usually do.
+ */
+public class EphemerisGenerator {
+
+    static final String HEADER = "orbit,t,nu,r,altitude,v";
+    private static final double TWO_PI = 2 * Math.PI;
+    private static final double TOLERANCE = 1e-12;
+    private static final int WARM_ITERATIONS = 8;
+    private static final int COLD_ITERATIONS = 50;
+
+    private EphemerisGenerator() {
+    }
+
+    /**
+     * Usage: ephemeris &lt;input file&gt; &lt;step seconds&gt; [&lt;periods&gt; [&lt;output file&gt;]]; the input is in
+     * the {@link BatchSolver} format and rows that cannot be solved are skipped.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: ephemeris <input file> <step seconds> [<periods> [<output file>]]");
+            return;
+        }
+        double step = Double.parseDouble(args[2]);
+        double periods = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+        BatchSolver batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES));
+        try (BufferedReader input = new BufferedReader(new FileReader(args[1]));
+             Writer output = new BufferedWriter(
+                     args.length > 4 ? new FileWriter(args[4]) : new OutputStreamWriter(System.out))) {
+            String header = input.readLine();
+            if (header == null) {
+                return;
+            }
+            String delimiter = BatchSolver.findDelimiter(header);
+            int[] columns = BatchSolver.findColumns(header.split(delimiter, -1));
+            EphemerisWriter sink = new EphemerisWriter(output);
+            output.write(HEADER);
+            output.write(System.lineSeparator());
+            int orbit = 0;
+            String line;
+            while ((line = input.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] values = line.split(delimiter, -1);
+                OrbitalProperties orbitalProperties = batchSolver.solveOrbit(values, columns);
+                if (orbitalProperties != null) {
+                    String body = BatchSolver.value(values, columns[BatchSolver.BODY]);
+                    generate(orbit, batchSolver.getBodyRegistry().get(body), orbitalProperties, step, periods, sink);
+                }
+                orbit++;
+            }
+        }
+        batchSolver.getReport().print(System.err);
+    }
+
+    /**
+     * Streams the samples at 0, step, 2 step... up to the given number of periods of a solved orbit.
+     */
+    public static void generate(int orbit, BodyProperties body, OrbitalProperties orbitalProperties, double step,
+                                double periods, EphemerisSink sink) throws IOException {
+        generate(orbit, body, orbitalProperties.getSemiMajorAxis(), orbitalProperties.getEccentricity(),
+                orbitalProperties.getOrbitalPeriod(), step, periods, sink);
+    }
+
+    public static void generate(int orbit, BodyProperties body, PrimitiveOrbit solvedOrbit, double step,
+                                double periods, EphemerisSink sink) throws IOException {
+        generate(orbit, body, solvedOrbit.getSemiMajorAxis(), solvedOrbit.getEccentricity(),
+                solvedOrbit.getOrbitalPeriod(), step, periods, sink);
+    }
+
+    private static void generate(int orbit, BodyProperties body, double a, double e, double orbitalPeriod,
+                                 double step, double periods, EphemerisSink sink) throws IOException {
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("Step must be positive: " + step);
+        }
+        double GM = body.getGravitationalParameter();
+        double radius = body.getRadius();
+        double meanMotion = TWO_PI / orbitalPeriod;
+        double anomalyFactor = Math.sqrt((1 + e) / (1 - e));
+        long samples = (long) Math.floor(periods * orbitalPeriod / step) + 1;
+        double meanAnomalyStep = meanMotion * step;
+        // the anomalies keep growing past 2 pi rather than wrapping, so the warm start never has to jump back
+        double eccentricAnomaly = 0;
+        for (long i = 0; i < samples; i++) {
+            double time = i * step;
+            if (i > 0) {
+                // dE/dM = 1 / (1 - e cos E), so step the previous solution forward along its slope
+                double guess = eccentricAnomaly + meanAnomalyStep / (1 - e * Math.cos(eccentricAnomaly));
+                eccentricAnomaly = solveKepler(meanMotion * time, e, guess);
+            }
+            double r = a * (1 - e * Math.cos(eccentricAnomaly));
+            double trueAnomaly = 2 * Math.atan(anomalyFactor * Math.tan(eccentricAnomaly / 2));
+            if (trueAnomaly < 0) {
+                trueAnomaly += TWO_PI;
+            }
+            double speed = Math.sqrt(GM * (2 / r - 1 / a));
+            sink.sample(orbit, time, Math.toDegrees(trueAnomaly), r, r - radius, speed);
+        }
+    }
+
+    /**
+     * @return the eccentric anomaly E with E - e sin E = M, for 0 &le; e &lt; 1
+     */
+    static double solveKepler(double meanAnomaly, double e) {
+        // this start converges for every eccentricity below 1
+        double start = meanAnomaly + 0.85 * e * Math.signum(Math.sin(meanAnomaly));
+        return newton(meanAnomaly, e, start, COLD_ITERATIONS);
+    }
+
+    /**
+     * As {@link #solveKepler(double, double)}, starting from a guess close to the answer. Falls back to a cold start
+     * if the guess does not converge quickly.
+     */
+    static double solveKepler(double meanAnomaly, double e, double guess) {
+        double eccentricAnomaly = newton(meanAnomaly, e, guess, WARM_ITERATIONS);
+        return Double.isNaN(eccentricAnomaly) ? solveKepler(meanAnomaly, e) : eccentricAnomaly;
+    }
+
+    /**
+     * @return the converged eccentric anomaly, or NaN if it did not converge within the given iterations
+     */
+    private static double newton(double meanAnomaly, double e, double eccentricAnomaly, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            double delta = (eccentricAnomaly - e * Math.sin(eccentricAnomaly) - meanAnomaly)
+                    / (1 - e * Math.cos(eccentricAnomaly));
+            eccentricAnomaly -= delta;
+            if (Math.abs(delta) < TOLERANCE) {
+                return eccentricAnomaly;
+            }
+        }
+        return Double.NaN;
+    }
+}
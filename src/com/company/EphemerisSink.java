@@ -0,0 +1,20 @@
+package com.company;
+
+import java.io.IOException;
+
+/**
+ * Receives the samples of {@link EphemerisGenerator} one at a time, in time order for each orbit.
+ */
+public interface EphemerisSink {
+
+    /**
+     * @param orbit       index of the orbit the sample belongs to
+     * @param time        seconds since periapsis
+     * @param trueAnomaly degrees past periapsis, from 0 up to 360
+     * @param radius      distance from the centre of the body in metres
+     * @param altitude    height above the surface in metres
+     * @param speed       orbital speed in metres per second
+     */
+    void sample(int orbit, double time, double trueAnomaly, double radius, double altitude, double speed)
+            throws IOException;
+}
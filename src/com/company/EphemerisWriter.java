@@ -0,0 +1,60 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes ephemeris samples as comma separated lines of orbit, t, nu, r, altitude and v, with times, distances and
+ * speeds to the millimetre and angles to a millionth of a degree.
+ */
+public class EphemerisWriter implements EphemerisSink {
+
+    private static final int DECIMALS = 3;
+    private static final int ANGLE_DECIMALS = 6;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000};
+    private static final double MAX_FAST_VALUE = 1e12;
+
+    private final Writer output;
+    private final StringBuilder line = new StringBuilder(96);
+
+    public EphemerisWriter(Writer output) {
+        this.output = output;
+    }
+
+    @Override
+    public void sample(int orbit, double time, double trueAnomaly, double radius, double altitude, double speed)
+            throws IOException {
+        line.setLength(0);
+        line.append(orbit).append(',');
+        appendFixed(time, DECIMALS);
+        line.append(',');
+        appendFixed(trueAnomaly, ANGLE_DECIMALS);
+        line.append(',');
+        appendFixed(radius, DECIMALS);
+        line.append(',');
+        appendFixed(altitude, DECIMALS);
+        line.append(',');
+        appendFixed(speed, DECIMALS);
+        line.append(System.lineSeparator());
+        output.append(line);
+    }
+
+    private void appendFixed(double value, int decimals) {
+        if (!(Math.abs(value) < MAX_FAST_VALUE)) {
+            line.append(value);
+            return;
+        }
+        if (value < 0) {
+            line.append('-');
+            value = -value;
+        }
+        long power = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(value * power);
+        line.append(scaled / power).append('.');
+        long fraction = scaled % power;
+        for (long digit = power / 10; digit > fraction && digit > 1; digit /= 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+}
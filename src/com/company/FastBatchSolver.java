@@ -0,0 +1,107 @@
+package com.company;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * The allocation-free counterpart of {@link BatchSolver}: rows are read from a memory-mapped file by
+ * {@link MappedOrbitReader}, solved by {@link PrimitiveOrbitSolver} and written by {@link OrbitResultWriter},
+ * all through one reused {@link PrimitiveOrbit}.
+ */
+public class FastBatchSolver {
+
+    private final BodyCatalog bodyCatalog;
+    private final RejectionReport report = new RejectionReport();
+
+    FastBatchSolver(BodyCatalog bodyCatalog) {
+        this.bodyCatalog = bodyCatalog;
+    }
+
+    public BodyCatalog getBodyCatalog() {
+        return bodyCatalog;
+    }
+
+    /**
+     * @return the outcome of every row solved so far
+     */
+    public RejectionReport getReport() {
+        return report;
+    }
+
+    /**
+     * Usage: fast &lt;text|csv|binary&gt; &lt;input file&gt; [&lt;output file&gt;]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: fast <text|csv|binary> <input file> [<output file>]");
+            return;
+        }
+        OrbitResultWriter.Format format = OrbitResultWriter.Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+        FastBatchSolver fastBatchSolver = new FastBatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES).getCatalog());
+        OutputStream output = args.length > 3 ? new FileOutputStream(args[3]) : System.out;
+        try (MappedOrbitReader reader = MappedOrbitReader.open(Paths.get(args[2]), fastBatchSolver.bodyCatalog)) {
+            OrbitResultWriter writer = new OrbitResultWriter(output, format);
+            fastBatchSolver.solve(reader, writer);
+            if (output != System.out) {
+                writer.close();
+            }
+        }
+        fastBatchSolver.getReport().print(System.err);
+    }
+
+    public void solve(MappedOrbitReader reader, OrbitResultWriter writer) throws IOException {
+        PrimitiveOrbit orbit = new PrimitiveOrbit();
+        if (writer.getFormat() == OrbitResultWriter.Format.CSV) {
+            writer.writeCsvHeader();
+        }
+        while (true) {
+            try {
+                if (!reader.next(orbit)) {
+                    break;
+                }
+            } catch (NumberFormatException e) {
+                report.recordInvalidInput();
+                writer.writeInvalidInput(reader.getBody(), e.getMessage());
+                continue;
+            }
+            BodyProperties body = reader.getBody();
+            if (body == null) {
+                report.record(OrbitStatus.REFERENCE_BODY_MISSING);
+                writer.writeMissingBody(reader.getBodyName());
+                continue;
+            }
+            int known = orbit.getKnown();
+            OrbitStatus status = PrimitiveOrbitSolver.solve(orbit, body);
+            report.record(status);
+            writer.write(body, orbit, status, known, reader.getPrecision());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Solves every row like {@link #solve(MappedOrbitReader, OrbitResultWriter)}, appending the results to a store.
+     */
+    public void solve(MappedOrbitReader reader, OrbitStore store) throws IOException {
+        PrimitiveOrbit orbit = new PrimitiveOrbit();
+        while (true) {
+            try {
+                if (!reader.next(orbit)) {
+                    break;
+                }
+            } catch (NumberFormatException e) {
+                report.recordInvalidInput();
+                store.appendInvalidInput(reader.getBody());
+                continue;
+            }
+            BodyProperties body = reader.getBody();
+            OrbitStatus status = body == null ?
+                    OrbitStatus.REFERENCE_BODY_MISSING : PrimitiveOrbitSolver.solve(orbit, body);
+            report.record(status);
+            store.append(body, orbit, status);
+        }
+        store.force();
+    }
+}
@@ -0,0 +1,66 @@
+package com.company;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link ShellIndex} per body of a catalog, for a fleet of solved orbits around any of them. Heights are
+ * distances from the centre of the body, like the rest of the solver; band queries by altitude above the surface
+ * are converted with the body's radius. Not safe for use from several threads at once.
+ */
+public class FleetShellIndex {
+
+    private final ShellIndex[] indexes;
+
+    FleetShellIndex(BodyCatalog bodyCatalog) {
+        indexes = new ShellIndex[bodyCatalog.size()];
+        for (int id = 0; id < indexes.length; id++) {
+            indexes[id] = new ShellIndex();
+        }
+    }
+
+    public ShellIndex get(BodyProperties body) {
+        return indexes[body.getId()];
+    }
+
+    /**
+     * Replaces the orbits indexed around the body with the solved rows of a batch, using row numbers as ids.
+     */
+    public void bulkLoad(BodyProperties body, OrbitColumns columns) {
+        int[] ids = new int[columns.size()];
+        double[] periapsis = new double[columns.size()];
+        double[] apoapsis = new double[columns.size()];
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.getStatus(row) == OrbitStatus.SOLVED) {
+                ids[count] = row;
+                periapsis[count] = columns.periapsisHeight[row];
+                apoapsis[count] = columns.apoapsisHeight[row];
+                count++;
+            }
+        }
+        get(body).bulkLoad(ids, periapsis, apoapsis, count);
+    }
+
+    public void insert(int id, BodyProperties body, PrimitiveOrbit orbit) {
+        get(body).insert(id, orbit.getPeriapsisHeight(), orbit.getApoapsisHeight());
+    }
+
+    public void insert(int id, BodyProperties body, OrbitalProperties orbitalProperties) {
+        get(body).insert(id, orbitalProperties.getPeriapsisHeight(), orbitalProperties.getApoapsisHeight());
+    }
+
+    /**
+     * @return whether the orbit was indexed around the body
+     */
+    public boolean delete(int id, BodyProperties body) {
+        return get(body).delete(id);
+    }
+
+    /**
+     * Reports every orbit around the body that passes through the band of altitudes above the surface.
+     */
+    public void crossingAltitudes(BodyProperties body, double lowAltitude, double highAltitude,
+                                  IntConsumer results) {
+        get(body).crossing(body.getRadius() + lowAltitude, body.getRadius() + highAltitude, results);
+    }
+}
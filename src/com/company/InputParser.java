@@ -0,0 +1,93 @@
+package com.company;
+
+public class InputParser {
+
+    private InputParser() {
+    }
+
+    static OrbitalProperties readOrbitalProperties(String orbitalPeriod, String semiMajorAxis,
+                                                   String inputApoapsisHeight, String inputPeriapsisHeight,
+                                                   String eccentricity, BodyProperties bodyProperties) {
+        OrbitalProperties orbitalProperties = new OrbitalProperties();
+        if (orbitalPeriod != null && !orbitalPeriod.isEmpty()) {
+            try {
+                orbitalProperties.setOrbitalPeriod(parseOrbitalPeriod(orbitalPeriod));
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid value for orbital period (T): " + orbitalPeriod);
+            }
+        }
+        if (semiMajorAxis != null && !semiMajorAxis.isEmpty()) {
+            semiMajorAxis = semiMajorAxis.replace(",", "");
+            orbitalProperties.setSemiMajorAxis(semiMajorAxis);
+        }
+        if (inputApoapsisHeight != null && !inputApoapsisHeight.isEmpty()) {
+            try {
+                Double apoapsisHeight = interpretInputHeight(inputApoapsisHeight, bodyProperties);
+                orbitalProperties.setApoapsisHeight(apoapsisHeight);
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid value for apoapsis height (rA): " + inputApoapsisHeight);
+            }
+        }
+        if (inputPeriapsisHeight != null && !inputPeriapsisHeight.isEmpty()) {
+            try {
+                Double periapsisHeight = interpretInputHeight(inputPeriapsisHeight, bodyProperties);
+                orbitalProperties.setPeriapsisHeight(periapsisHeight);
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("Invalid value for periapsis height (rP): " + inputPeriapsisHeight);
+            }
+        }
+        if (eccentricity != null && !eccentricity.isEmpty()) {
+            orbitalProperties.setEccentricity(eccentricity);
+        }
+        return orbitalProperties;
+    }
+
+    static Double interpretInputHeight(String inputApoapsisHeight, BodyProperties bodyProperties) {
+        String inputHeight = inputApoapsisHeight.replace(",", "");
+        boolean referenceAboveSurface = false;
+        if (inputHeight.endsWith("AS")) {
+            referenceAboveSurface = true;
+            inputHeight = inputHeight.substring(0, inputHeight.length() - 2);
+        }
+        Double trueHeight = Double.parseDouble(inputHeight);
+        if (referenceAboveSurface) {
+            trueHeight += bodyProperties.getRadius();
+        }
+        return trueHeight;
+    }
+
+    static Double parseOrbitalPeriod(String orbitalPeriod) {
+        orbitalPeriod = orbitalPeriod.replace(",", "");
+        String[] split = orbitalPeriod.split(" ");
+        Double numSeconds = 0D;
+        for (String numberAndUnit : split) {
+            if (numberAndUnit.length() > 1) {
+                String unit = numberAndUnit.substring(numberAndUnit.length() - 1);
+                Double number = Double.valueOf(numberAndUnit.substring(0, numberAndUnit.length() - 1));
+                switch (unit) {
+                    case "s":
+                        numSeconds += number;
+                        break;
+                    case "m":
+                        numSeconds += number * Main.SECONDS_IN_MINUTE;
+                        break;
+                    case "h":
+                        numSeconds += number * Main.SECONDS_IN_HOUR;
+                        break;
+                }
+            }
+        }
+        return numSeconds;
+    }
+
+    static String defaultIfNull(String precision, String defaultValue) {
+        return precision != null && !precision.isEmpty() ? precision : defaultValue;
+    }
+
+    static Double calculateValue(String property) {
+        String[] split = property.split("\\^");
+        double value = Double.parseDouble(split[0]);
+        double orderOfMagnitude = Double.parseDouble(split[1]);
+        return value*Math.pow(10, orderOfMagnitude);
+    }
+}
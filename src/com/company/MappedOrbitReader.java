@@ -0,0 +1,293 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a {@link BatchSolver} input file through a memory-mapped buffer, decoding each row straight into a reusable
+ * {@link PrimitiveOrbit} with {@link ByteInputParser}. Nothing is allocated per row unless a row is invalid. Files
+ * larger than one mapping are mapped a window at a time, always starting at a line boundary.
+ */
+public class MappedOrbitReader implements AutoCloseable {
+
+    static final int MAX_WINDOW = Integer.MAX_VALUE - 8;
+    // as InputParser and OrbitalProperties name them when a value cannot be read
+    private static final String[] VALUE_NAMES = {null, "orbital period (T)", "semi major axis (a)",
+            "apoapsis height (rA)", "periapsis height (rP)", "eccentricity (e)"};
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final BodyCatalog bodyCatalog;
+    private final byte[][] bodyNames;
+    private ByteBuffer buffer;
+    private long windowStart;
+    private byte delimiter;
+    private int[] fieldColumns;
+    private long lineNumber;
+
+    // where each input column of the row being read starts and ends, -1 if the row does not have it
+    private final int[] valueStarts = new int[BatchSolver.INPUT_COLUMNS.length];
+    private final int[] valueEnds = new int[BatchSolver.INPUT_COLUMNS.length];
+
+    private BodyProperties body;
+    private int precision;
+
+    MappedOrbitReader(ByteBuffer buffer, BodyCatalog bodyCatalog) {
+        this(null, buffer.limit(), buffer.limit(), bodyCatalog);
+        this.buffer = buffer;
+        readHeader();
+    }
+
+    private MappedOrbitReader(FileChannel channel, long fileSize, int windowSize, BodyCatalog bodyCatalog) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.windowSize = windowSize;
+        this.bodyCatalog = bodyCatalog;
+        this.bodyNames = new byte[bodyCatalog.size()][];
+        for (int id = 0; id < bodyNames.length; id++) {
+            bodyNames[id] = bodyCatalog.get(id).getName().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static MappedOrbitReader open(Path path, BodyCatalog bodyCatalog) throws IOException {
+        return open(path, bodyCatalog, MAX_WINDOW);
+    }
+
+    static MappedOrbitReader open(Path path, BodyCatalog bodyCatalog, int windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedOrbitReader reader = new MappedOrbitReader(channel, channel.size(), windowSize, bodyCatalog);
+        reader.map(0);
+        reader.readHeader();
+        return reader;
+    }
+
+    /**
+     * The body of the row last read by {@link #next}, or null if it names no known body, in which case none of its
+     * values are read either.
+     */
+    public BodyProperties getBody() {
+        return body;
+    }
+
+    /**
+     * @return the body column of the row last read by {@link #next} as it was written, trimmed, or null if the row
+     * has no body column; decoded on each call, so only for rows naming no known body
+     */
+    public String getBodyName() {
+        int bodyStart = valueStarts[BatchSolver.BODY];
+        return bodyStart < 0 ? null : ByteInputParser.decode(buffer, bodyStart, valueEnds[BatchSolver.BODY]);
+    }
+
+    /**
+     * The precision column of the row last read by {@link #next}, 0 if it was empty.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Reads the next non-empty row into the given orbit, replacing whatever it held.
+     *
+     * @return false once there are no more rows
+     * @throws NumberFormatException if a value in the row cannot be read; the reader moves on to the next row
+     */
+    public boolean next(PrimitiveOrbit orbit) throws IOException {
+        while (true) {
+            int lineStart = buffer.position();
+            int lineEnd = findLineEnd(lineStart);
+            if (lineEnd < 0) {
+                if (windowStart + buffer.limit() >= fileSize) {
+                    if (lineStart == buffer.limit()) {
+                        return false;
+                    }
+                    lineEnd = buffer.limit();
+                } else {
+                    map(windowStart + lineStart);
+                    continue;
+                }
+            }
+            buffer.position(Math.min(lineEnd + 1, buffer.limit()));
+            lineNumber++;
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (isBlank(lineStart, contentEnd)) {
+                continue;
+            }
+            readRow(lineStart, contentEnd, orbit);
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void readRow(int start, int end, PrimitiveOrbit orbit) {
+        orbit.clear();
+        body = null;
+        precision = 0;
+        Arrays.fill(valueStarts, -1);
+        int fieldStart = start;
+        for (int field = 0; fieldStart <= end; field++) {
+            int fieldEnd = findFieldEnd(fieldStart, end);
+            if (field < fieldColumns.length && fieldColumns[field] >= 0) {
+                int valueStart = trimStart(fieldStart, fieldEnd);
+                valueStarts[fieldColumns[field]] = valueStart;
+                valueEnds[fieldColumns[field]] = trimEnd(valueStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        if (valueStarts[BatchSolver.BODY] >= 0) {
+            body = findBody(valueStarts[BatchSolver.BODY], valueEnds[BatchSolver.BODY]);
+        }
+        if (body == null) {
+            // rejected for the body before any value is looked at, as BatchSolver does
+            return;
+        }
+        // values are read in the order BatchSolver reads them, so a row with more than one problem is rejected for
+        // the same one; heights given the wrong way round are refused as soon as both are read
+        for (int column = BatchSolver.BODY + 1; column < valueStarts.length; column++) {
+            if (valueStarts[column] >= 0 && valueStarts[column] < valueEnds[column]) {
+                readValue(column, valueStarts[column], valueEnds[column], orbit);
+            }
+            if (column == BatchSolver.PERIAPSIS && PrimitiveOrbitSolver.isPeriapsisGivenAboveApoapsis(orbit)) {
+                return;
+            }
+        }
+    }
+
+    private void readValue(int column, int start, int end, PrimitiveOrbit orbit) {
+        try {
+            switch (column) {
+                case 1:
+                    orbit.setOrbitalPeriod(ByteInputParser.parseOrbitalPeriod(buffer, start, end));
+                    break;
+                case 2:
+                    orbit.setSemiMajorAxis(ByteInputParser.parseDouble(buffer, start, end, true));
+                    break;
+                case 3:
+                    orbit.setApoapsisHeight(ByteInputParser.parseHeight(buffer, start, end, body));
+                    break;
+                case 4:
+                    orbit.setPeriapsisHeight(ByteInputParser.parseHeight(buffer, start, end, body));
+                    break;
+                case 5:
+                    orbit.setEccentricity(ByteInputParser.parseDouble(buffer, start, end, false));
+                    break;
+                case 6:
+                    precision = ByteInputParser.parseInt(buffer, start, end);
+                    if (precision < 0) {
+                        throw new NumberFormatException("Negative precision");
+                    }
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            String value = ByteInputParser.decode(buffer, start, end);
+            throw new NumberFormatException(column == BatchSolver.PRECISION
+                    ? "Invalid precision: " + value : "Invalid value for " + VALUE_NAMES[column] + ": " + value);
+        }
+    }
+
+    private BodyProperties findBody(int start, int end) {
+        for (int id = 0; id < bodyNames.length; id++) {
+            byte[] name = bodyNames[id];
+            if (name.length == end - start && matches(name, start)) {
+                return bodyCatalog.get(id);
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] name, int start) {
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readHeader() {
+        int lineEnd = findLineEnd(0);
+        int headerEnd = lineEnd < 0 ? buffer.limit() : lineEnd;
+        if (headerEnd > 0 && buffer.get(headerEnd - 1) == '\r') {
+            headerEnd--;
+        }
+        String header = ByteInputParser.decode(buffer, 0, headerEnd);
+        String delimiterText = BatchSolver.findDelimiter(header);
+        delimiter = (byte) delimiterText.charAt(0);
+        String[] fields = header.split(delimiterText, -1);
+        int[] columns = BatchSolver.findColumns(fields);
+        fieldColumns = new int[fields.length];
+        for (int field = 0; field < fields.length; field++) {
+            fieldColumns[field] = -1;
+        }
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column] >= 0) {
+                fieldColumns[columns[column]] = column;
+            }
+        }
+        buffer.position(lineEnd < 0 ? buffer.limit() : lineEnd + 1);
+        lineNumber = 1;
+    }
+
+    private void map(long position) throws IOException {
+        long size = Math.min(windowSize, fileSize - position);
+        if (buffer != null && position == windowStart) {
+            throw new IOException("Line " + (lineNumber + 1) + " is longer than the mapping window");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        windowStart = position;
+    }
+
+    private int findLineEnd(int from) {
+        for (int i = from; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findFieldEnd(int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == delimiter) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private boolean isBlank(int start, int end) {
+        return trimStart(start, end) == end;
+    }
+
+    /**
+     * Skips what String.trim skips: spaces, tabs and every other control character.
+     */
+    private int trimStart(int start, int end) {
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,119 @@
+package com.company;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size-bounded, thread-safe memo of solved queries, rejections included. Entries are spread over independently
+ * locked stripes by hash, each stripe evicting its least recently used entry once it is full, so threads only
+ * contend when they hit the same stripe. The maximum size is shared out between the stripes, so the cache never holds
+ * more entries than it was created with.
+ */
+public class OrbitCache {
+
+    /**
+     * The system property giving the number of entries to cache, 0 for no cache.
+     */
+    static final String SIZE_PROPERTY = "orbit.cache.size";
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OrbitCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maximumSize);
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maximumSize / STRIPES + (i < maximumSize % STRIPES ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return a cache of -Dorbit.cache.size entries, or of the default size if the property is not set; null if the
+     * size is 0
+     */
+    static OrbitCache fromSystemProperty(int defaultSize) {
+        int size = Integer.getInteger(SIZE_PROPERTY, defaultSize);
+        return size > 0 ? new OrbitCache(size) : null;
+    }
+
+    /**
+     * Returns the cached result for the query, solving and caching it on a miss. Solving happens outside the lock,
+     * so two threads missing on the same query at once may both solve it.
+     */
+    public SolvedOrbit get(OrbitQuery query, Function<OrbitQuery, SolvedOrbit> solve) {
+        Stripe stripe = stripeFor(query);
+        SolvedOrbit solved;
+        synchronized (stripe) {
+            solved = stripe.get(query);
+        }
+        if (solved != null) {
+            hits.increment();
+            return solved;
+        }
+        misses.increment();
+        solved = solve.apply(query);
+        synchronized (stripe) {
+            stripe.put(query, solved);
+        }
+        return solved;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Drops every entry and resets the hit and miss counters.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private Stripe stripeFor(OrbitQuery query) {
+        int hash = query.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    private static class Stripe extends LinkedHashMap<OrbitQuery, SolvedOrbit> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Stripe(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<OrbitQuery, SolvedOrbit> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.company;
+
+/**
+ * The canonical form of a query: the body plus the known values after unit and above-surface normalisation, so
+ * "1h" and "60m", or "100000AS" and "700000" around kerbin, are the same query. Bodies are compared by identity,
+ * so queries made before a {@link BodyRegistry#reload()} never match queries made after it.
+ */
+public final class OrbitQuery {
+
+    private final BodyProperties body;
+    private final int known;
+    private final double orbitalPeriod;
+    private final double semiMajorAxis;
+    private final double apoapsisHeight;
+    private final double periapsisHeight;
+    private final double eccentricity;
+    private final int hashCode;
+
+    OrbitQuery(BodyProperties body, OrbitalProperties orbitalProperties) {
+        this.body = body;
+        this.known = OrbitSolver.knownMask(orbitalProperties);
+        this.orbitalPeriod = valueOrZero(orbitalProperties.getOrbitalPeriod());
+        this.semiMajorAxis = valueOrZero(orbitalProperties.getSemiMajorAxis());
+        this.apoapsisHeight = valueOrZero(orbitalProperties.getApoapsisHeight());
+        this.periapsisHeight = valueOrZero(orbitalProperties.getPeriapsisHeight());
+        this.eccentricity = valueOrZero(orbitalProperties.getEccentricity());
+        int result = body.getId();
+        result = 31 * result + known;
+        result = 31 * result + Double.hashCode(orbitalPeriod);
+        result = 31 * result + Double.hashCode(semiMajorAxis);
+        result = 31 * result + Double.hashCode(apoapsisHeight);
+        result = 31 * result + Double.hashCode(periapsisHeight);
+        result = 31 * result + Double.hashCode(eccentricity);
+        this.hashCode = result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrbitQuery)) return false;
+
+        OrbitQuery that = (OrbitQuery) o;
+
+        return body == that.body && known == that.known &&
+                Double.compare(orbitalPeriod, that.orbitalPeriod) == 0 &&
+                Double.compare(semiMajorAxis, that.semiMajorAxis) == 0 &&
+                Double.compare(apoapsisHeight, that.apoapsisHeight) == 0 &&
+                Double.compare(periapsisHeight, that.periapsisHeight) == 0 &&
+                Double.compare(eccentricity, that.eccentricity) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0d;
+    }
+}
@@ -0,0 +1,468 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes solved orbits into one reusable buffer that is drained to a channel when it fills up.
+ * <ul>
+ * <li>TEXT is byte for byte what {@link Main#print} has always written with String.format, in the default locale
+ * and charset.</li>
+ * <li>CSV has the {@link BatchSolver} output columns, with '.' as the decimal point and no grouping.</li>
+ * <li>BINARY is a fixed {@link #BINARY_RECORD_SIZE} byte big-endian record per orbit: body id (int), status code
+ * ({@link OrbitStatus#getCode()}, or {@link #INVALID_INPUT}), then T, a, rA, rP, rA_AS, rP_AS and e as doubles.</li>
+ * </ul>
+ * Numbers are formatted from the double directly. Values that String.format could round differently (too large,
+ * negative, or within rounding error of a half) fall back to String.format, so the output never differs from it.
+ */
+public class OrbitResultWriter implements Flushable, Closeable {
+
+    public enum Format {
+        TEXT, CSV, BINARY
+    }
+
+    public static final int BINARY_RECORD_SIZE = 4 + 1 + 7 * 8;
+    public static final byte INVALID_INPUT = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FAST_PRECISION = 9;
+    private static final double MAX_FAST_SCALED_VALUE = 1e12;
+    private static final double TIE_MARGIN = 1e-3;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Charset charset;
+    private final NumberSymbols textSymbols;
+    private final NumberSymbols csvSymbols;
+    private final byte[] lineSeparator;
+    private final byte[] scratch = new byte[64];
+
+    private final byte[] orbitalPeriodLabel;
+    private final byte[] semiMajorAxisLabel;
+    private final byte[] apoapsisLabel;
+    private final byte[] periapsisLabel;
+    private final byte[] eccentricityLabel;
+    private final byte[] metres;
+    private final byte[] metresOpen;
+    private final byte[] metresClose;
+    private final byte[] circularNote;
+    private final byte[][] statusMessages;
+    private final byte[] periapsisAboveApoapsis;
+    private final Map<String, byte[]> bodyNames = new HashMap<>();
+
+    public OrbitResultWriter(WritableByteChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+        this.charset = Charset.defaultCharset();
+        this.textSymbols = new NumberSymbols(Locale.getDefault(Locale.Category.FORMAT), charset);
+        // only CSV rows use them, so the TEXT writer of the command line does not pay for a second locale lookup
+        this.csvSymbols = format == Format.CSV ? new NumberSymbols(Locale.ROOT, charset) : null;
+        this.lineSeparator = bytes(System.lineSeparator());
+        this.orbitalPeriodLabel = bytes("Orbital Period\t\t");
+        this.semiMajorAxisLabel = bytes("Semi-Major Axis\t\t");
+        this.apoapsisLabel = bytes("Apoapsis\t\t\t");
+        this.periapsisLabel = bytes("Periapsis\t\t\t");
+        this.eccentricityLabel = bytes("Eccentricity\t\t");
+        this.metres = bytes(" m");
+        this.metresOpen = bytes(" m (");
+        this.metresClose = bytes(" m)");
+        this.circularNote = bytes("Assuming circular orbit");
+        this.statusMessages = new byte[OrbitStatus.values().length][];
+        for (OrbitStatus status : OrbitStatus.values()) {
+            String message = status == OrbitStatus.SOLVED ? BatchSolver.SOLVED : status.getMessage();
+            statusMessages[status.ordinal()] = bytes(message);
+        }
+        this.periapsisAboveApoapsis = bytes(OrbitSolver.PERIAPSIS_ABOVE_APOAPSIS);
+    }
+
+    public OrbitResultWriter(OutputStream output, Format format) {
+        this(Channels.newChannel(output), format);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Writes the result of {@link PrimitiveOrbitSolver#solve}; for a rejected orbit TEXT writes the reason,
+     * CSV writes an empty row with the reason and BINARY writes the status with NaN values. The reason is the one
+     * {@link BatchSolver} gives.
+     *
+     * @param known the known mask the orbit had before it was solved
+     */
+    public void write(BodyProperties body, PrimitiveOrbit orbit, OrbitStatus status, int known, int precision)
+            throws IOException {
+        boolean solved = status == OrbitStatus.SOLVED;
+        byte[] result = OrbitSolver.isPeriapsisAboveApoapsis(status, known)
+                ? periapsisAboveApoapsis : statusMessages[status.ordinal()];
+        switch (format) {
+            case TEXT:
+                if (orbit.isCircularAssumed()) {
+                    put(circularNote);
+                    put(lineSeparator);
+                }
+                if (solved) {
+                    writeText(orbit.getOrbitalPeriod(), orbit.getSemiMajorAxis(), orbit.getApoapsisHeight(),
+                            orbit.getApoapsisHeightAS(), orbit.getPeriapsisHeight(), orbit.getPeriapsisHeightAS(),
+                            orbit.getEccentricity(), precision);
+                } else {
+                    put(result);
+                    put(lineSeparator);
+                }
+                break;
+            case CSV:
+                writeCsv(bodyName(body), solved, orbit.getOrbitalPeriod(), orbit.getSemiMajorAxis(),
+                        orbit.getApoapsisHeight(), orbit.getPeriapsisHeight(), orbit.getApoapsisHeightAS(),
+                        orbit.getPeriapsisHeightAS(), orbit.getEccentricity(), precision, result);
+                break;
+            case BINARY:
+                writeBinary(body != null ? body.getId() : -1, status.getCode(), solved, orbit.getOrbitalPeriod(),
+                        orbit.getSemiMajorAxis(), orbit.getApoapsisHeight(), orbit.getPeriapsisHeight(),
+                        orbit.getApoapsisHeightAS(), orbit.getPeriapsisHeightAS(), orbit.getEccentricity());
+                break;
+        }
+    }
+
+    /**
+     * Writes a row whose values could not be read at all.
+     */
+    public void writeInvalidInput(BodyProperties body, String reason) throws IOException {
+        switch (format) {
+            case TEXT:
+                writeLine(reason);
+                break;
+            case CSV:
+                writeCsv(bodyName(body), false, 0, 0, 0, 0, 0, 0, 0, 0, bytes(reason));
+                break;
+            case BINARY:
+                writeBinary(body != null ? body.getId() : -1, INVALID_INPUT, false, 0, 0, 0, 0, 0, 0, 0);
+                break;
+        }
+    }
+
+    /**
+     * Writes the rejection of a row naming no known body. CSV keeps the name as it was given, as
+     * {@link BatchSolver} does.
+     */
+    public void writeMissingBody(String name) throws IOException {
+        OrbitStatus status = OrbitStatus.REFERENCE_BODY_MISSING;
+        switch (format) {
+            case TEXT:
+                put(statusMessages[status.ordinal()]);
+                put(lineSeparator);
+                break;
+            case CSV:
+                writeCsv(name != null ? bytes(name) : null, false, 0, 0, 0, 0, 0, 0, 0, 0,
+                        statusMessages[status.ordinal()]);
+                break;
+            case BINARY:
+                writeBinary(-1, status.getCode(), false, 0, 0, 0, 0, 0, 0, 0);
+                break;
+        }
+    }
+
+    /**
+     * Writes the lines of {@link Main#print} for a solved orbit.
+     */
+    public void writeText(OrbitalProperties orbitalProperties, int precision) throws IOException {
+        writeText(orbitalProperties.getOrbitalPeriod(), orbitalProperties.getSemiMajorAxis(),
+                orbitalProperties.getApoapsisHeight(), orbitalProperties.getApoapsisHeightAS(),
+                orbitalProperties.getPeriapsisHeight(), orbitalProperties.getPeriapsisHeightAS(),
+                orbitalProperties.getEccentricity(), precision);
+    }
+
+    /**
+     * Writes the CSV header row, for CSV output only.
+     */
+    public void writeCsvHeader() throws IOException {
+        writeLine(String.join(",", BatchSolver.OUTPUT_COLUMNS));
+    }
+
+    public void writeLine(String line) throws IOException {
+        put(bytes(line));
+        put(lineSeparator);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeText(double orbitalPeriod, double semiMajorAxis, double apoapsisHeight,
+                           double apoapsisHeightAS, double periapsisHeight, double periapsisHeightAS,
+                           double eccentricity, int precision) throws IOException {
+        put(orbitalPeriodLabel);
+        writeOrbitalPeriod(Math.round(orbitalPeriod));
+        put(lineSeparator);
+        put(semiMajorAxisLabel);
+        writeFixed(semiMajorAxis, precision, textSymbols, true);
+        put(metres);
+        put(lineSeparator);
+        put(apoapsisLabel);
+        writeFixed(apoapsisHeight, precision, textSymbols, true);
+        put(metresOpen);
+        writeFixed(apoapsisHeightAS, precision, textSymbols, true);
+        put(metresClose);
+        put(lineSeparator);
+        put(periapsisLabel);
+        writeFixed(periapsisHeight, precision, textSymbols, true);
+        put(metresOpen);
+        writeFixed(periapsisHeightAS, precision, textSymbols, true);
+        put(metresClose);
+        put(lineSeparator);
+        put(eccentricityLabel);
+        writeFixed(eccentricity, 4, textSymbols, false);
+        put(lineSeparator);
+    }
+
+    /**
+     * Whole hours, minutes and seconds, leaving out any that are zero.
+     */
+    private void writeOrbitalPeriod(long orbitalPeriod) throws IOException {
+        if (orbitalPeriod > Main.SECONDS_IN_HOUR) {
+            long numHours = orbitalPeriod / Main.SECONDS_IN_HOUR;
+            writeLong(numHours);
+            putAscii('h');
+            putAscii(' ');
+            orbitalPeriod -= numHours * Main.SECONDS_IN_HOUR;
+        }
+        if (orbitalPeriod >= Main.SECONDS_IN_MINUTE) {
+            long numMinutes = orbitalPeriod / Main.SECONDS_IN_MINUTE;
+            writeLong(numMinutes);
+            putAscii('m');
+            putAscii(' ');
+            orbitalPeriod -= numMinutes * Main.SECONDS_IN_MINUTE;
+        }
+        if (orbitalPeriod > 0) {
+            writeLong(orbitalPeriod);
+            putAscii('s');
+        }
+    }
+
+    private void writeCsv(byte[] bodyName, boolean solved, double orbitalPeriod, double semiMajorAxis,
+                          double apoapsisHeight, double periapsisHeight, double apoapsisHeightAS,
+                          double periapsisHeightAS, double eccentricity, int precision, byte[] result)
+            throws IOException {
+        if (bodyName != null) {
+            put(bodyName);
+        }
+        if (solved) {
+            putAscii(',');
+            writeFixed(orbitalPeriod, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(semiMajorAxis, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(apoapsisHeight, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(periapsisHeight, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(apoapsisHeightAS, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(periapsisHeightAS, precision, csvSymbols, false);
+            putAscii(',');
+            writeFixed(eccentricity, 4, csvSymbols, false);
+            putAscii(',');
+        } else {
+            for (int i = 1; i < BatchSolver.OUTPUT_COLUMNS.length; i++) {
+                putAscii(',');
+            }
+        }
+        put(result);
+        put(lineSeparator);
+    }
+
+    private void writeBinary(int bodyId, byte status, boolean solved, double orbitalPeriod,
+                             double semiMajorAxis, double apoapsisHeight, double periapsisHeight,
+                             double apoapsisHeightAS, double periapsisHeightAS, double eccentricity)
+            throws IOException {
+        ensureSpace(BINARY_RECORD_SIZE);
+        buffer.putInt(bodyId);
+        buffer.put(status);
+        buffer.putDouble(solved ? orbitalPeriod : Double.NaN);
+        buffer.putDouble(solved ? semiMajorAxis : Double.NaN);
+        buffer.putDouble(solved ? apoapsisHeight : Double.NaN);
+        buffer.putDouble(solved ? periapsisHeight : Double.NaN);
+        buffer.putDouble(solved ? apoapsisHeightAS : Double.NaN);
+        buffer.putDouble(solved ? periapsisHeightAS : Double.NaN);
+        buffer.putDouble(solved ? eccentricity : Double.NaN);
+    }
+
+    /**
+     * Writes the value as String.format("%.Nf") would, or "%,.Nf" when grouping.
+     */
+    private void writeFixed(double value, int precision, NumberSymbols symbols, boolean grouping)
+            throws IOException {
+        long scaled = roundScaled(value, precision);
+        if (scaled >= 0) {
+            writeScaled(scaled, precision, symbols, grouping);
+            return;
+        }
+        String pattern = (grouping ? "%," : "%") + "." + precision + "f";
+        put(bytes(String.format(symbols.locale, pattern, value)));
+    }
+
+    /**
+     * Appends the value as String.format(Locale.ROOT, "%.Nf") would, for rows that are built as strings.
+     */
+    static StringBuilder appendFixed(StringBuilder row, double value, int precision) {
+        long scaled = roundScaled(value, precision);
+        if (scaled < 0) {
+            return row.append(String.format(Locale.ROOT, "%." + precision + "f", value));
+        }
+        row.append(scaled / POWERS_OF_TEN[precision]);
+        if (precision > 0) {
+            long fractionPart = scaled % POWERS_OF_TEN[precision];
+            row.append('.');
+            for (int i = precision - 1; i >= 0; i--) {
+                row.append((char) ('0' + fractionPart / POWERS_OF_TEN[i] % 10));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * @return the value times 10 to the precision, rounded as String.format rounds it, or -1 if String.format could
+     * round it differently
+     */
+    private static long roundScaled(double value, int precision) {
+        // negative values and -0.0 keep their sign in String.format
+        if (precision > MAX_FAST_PRECISION || !(value >= 0) || Double.doubleToRawLongBits(value) < 0) {
+            return -1;
+        }
+        double scaled = value * POWERS_OF_TEN[precision];
+        if (!(scaled < MAX_FAST_SCALED_VALUE)) {
+            return -1;
+        }
+        long whole = (long) scaled;
+        double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) <= TIE_MARGIN) {
+            return -1;
+        }
+        return fraction > 0.5 ? whole + 1 : whole;
+    }
+
+    private void writeScaled(long scaled, int precision, NumberSymbols symbols, boolean grouping)
+            throws IOException {
+        long integerPart = scaled / POWERS_OF_TEN[precision];
+        long fractionPart = scaled % POWERS_OF_TEN[precision];
+        int length = 0;
+        int digits = 0;
+        do {
+            if (grouping && symbols.groupingSize > 0 && digits > 0 && digits % symbols.groupingSize == 0) {
+                scratch[length++] = -1;
+            }
+            scratch[length++] = (byte) (integerPart % 10);
+            integerPart /= 10;
+            digits++;
+        } while (integerPart > 0);
+        for (int i = length - 1; i >= 0; i--) {
+            put(scratch[i] < 0 ? symbols.groupingSeparator : symbols.digits[scratch[i]]);
+        }
+        if (precision > 0) {
+            put(symbols.decimalSeparator);
+            for (int i = precision - 1; i >= 0; i--) {
+                put(symbols.digits[(int) (fractionPart / POWERS_OF_TEN[i] % 10)]);
+            }
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        int length = 0;
+        do {
+            scratch[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensureSpace(length);
+        for (int i = length - 1; i >= 0; i--) {
+            buffer.put(scratch[i]);
+        }
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void putAscii(char c) throws IOException {
+        ensureSpace(1);
+        buffer.put((byte) c);
+    }
+
+    private void ensureSpace(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private byte[] bodyName(BodyProperties body) {
+        if (body == null) {
+            return null;
+        }
+        byte[] name = bodyNames.get(body.getName());
+        if (name == null) {
+            name = bytes(body.getName());
+            bodyNames.put(body.getName(), name);
+        }
+        return name;
+    }
+
+    private byte[] bytes(String text) {
+        return text.getBytes(charset);
+    }
+
+    /**
+     * The digits and separators String.format uses for a locale, already encoded.
+     */
+    private static class NumberSymbols {
+
+        private final Locale locale;
+        private final byte[][] digits = new byte[10][];
+        private final byte[] groupingSeparator;
+        private final byte[] decimalSeparator;
+        private final int groupingSize;
+
+        NumberSymbols(Locale locale, Charset charset) {
+            this.locale = locale;
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = String.valueOf((char) (symbols.getZeroDigit() + i)).getBytes(charset);
+            }
+            groupingSeparator = String.valueOf(symbols.getGroupingSeparator()).getBytes(charset);
+            decimalSeparator = String.valueOf(symbols.getDecimalSeparator()).getBytes(charset);
+            NumberFormat numberFormat = NumberFormat.getIntegerInstance(locale);
+            groupingSize = numberFormat instanceof DecimalFormat ? ((DecimalFormat) numberFormat).getGroupingSize() : 3;
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.company;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Sweeps a grid of candidate orbits around one body, either periapsis by apoapsis or orbital period by eccentricity,
+ * and keeps the ones closest to a set of target values. Rows of the grid are searched in parallel on a fork/join pool.
+ * Columns are searched in ascending order, so a row stops at the first candidate whose periapsis is in the atmosphere
+ * or whose apoapsis is outside the sphere of influence, as every later candidate in the row is further out.
+ * <p>
+ * Either the best k matches are kept and handed over best first once the grid is done, or every match within a score
+ * is handed over as soon as the row it is in has been searched, without keeping any of them.
+ */
+public class OrbitSearch {
+
+    public enum Grid {
+        /**
+         * Rows are periapsis heights, columns apoapsis heights.
+         */
+        APSIDES,
+        /**
+         * Rows are orbital periods, columns eccentricities.
+         */
+        PERIOD_ECCENTRICITY
+    }
+
+    static final int DEFAULT_STEPS = 200;
+    static final int DEFAULT_TOP = 10;
+    static final String[] KEYS = {"T", "a", "rA", "rP", "e"};
+    static final int ORBITAL_PERIOD = 0;
+    static final int SEMI_MAJOR_AXIS = 1;
+    static final int APOAPSIS = 2;
+    static final int PERIAPSIS = 3;
+    static final int ECCENTRICITY = 4;
+    private static final String RANGE = "..";
+
+    private static final Comparator<Match> BEST_FIRST = (x, y) -> compare(x.score, x.orbit, y);
+
+    private final BodyProperties body;
+    private final Grid grid;
+    private final double[] rows;
+    private final double[] columns;
+    private final double[] targets;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param rows    ascending periapsis heights or orbital periods
+     * @param columns ascending apoapsis heights or eccentricities
+     * @param targets a target value for each of {@link #KEYS}, NaN for no target
+     */
+    OrbitSearch(BodyProperties body, Grid grid, double[] rows, double[] columns, double[] targets, int parallelism) {
+        if (grid == Grid.PERIOD_ECCENTRICITY && (columns[0] < 0 || columns[columns.length - 1] >= 1)) {
+            throw new IllegalArgumentException("Eccentricity must be at least 0 and below 1");
+        }
+        this.body = body;
+        this.grid = grid;
+        this.rows = rows;
+        this.columns = columns;
+        this.targets = targets;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Usage: search body=&lt;body&gt; &lt;key&gt;=&lt;from&gt;..&lt;to&gt; &lt;key&gt;=&lt;from&gt;..&lt;to&gt;
+     * [&lt;key&gt;=&lt;target&gt;...] [resonance=&lt;body&gt;:&lt;ratio&gt;] [steps=&lt;n&gt;]
+     * [top=&lt;k&gt; | within=&lt;score&gt;] [parallelism=&lt;n&gt;] [format=text|csv|binary] [precision=&lt;n&gt;]
+     * [output=&lt;file&gt;]
+     * <p>
+     * The two ranges are either rP and rA or T and e, written as in known_values.properties, e.g.
+     * "search body=kerbin rP=70000AS..100000AS rA=70000AS..2000000AS T=2h top=5". A resonance targets an orbital
+     * period that is a ratio of another body's period around its parent, e.g. "resonance=mun:2/3" for two orbits to
+     * every three of mun's. With within, every match scoring at most that is written as it is found, in no
+     * particular order, instead of the best k at the end.
+     */
+    public static void main(String[] args) throws IOException {
+        String bodyName = null;
+        String[] ranges = new String[KEYS.length];
+        String[] targetValues = new String[KEYS.length];
+        int steps = DEFAULT_STEPS;
+        int top = DEFAULT_TOP;
+        double within = Double.NaN;
+        String resonance = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        OrbitResultWriter.Format format = OrbitResultWriter.Format.CSV;
+        int precision = 0;
+        String output = null;
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            String key = equals < 0 ? args[i] : args[i].substring(0, equals);
+            String value = equals < 0 ? "" : args[i].substring(equals + 1);
+            int index = Arrays.asList(KEYS).indexOf(key);
+            if (index >= 0) {
+                if (value.contains(RANGE)) {
+                    ranges[index] = value;
+                } else {
+                    targetValues[index] = value;
+                }
+            } else if (key.equals("body")) {
+                bodyName = value;
+            } else if (key.equals("steps")) {
+                steps = Integer.parseInt(value);
+            } else if (key.equals("top")) {
+                top = Integer.parseInt(value);
+            } else if (key.equals("within")) {
+                within = Double.parseDouble(value);
+            } else if (key.equals("resonance")) {
+                resonance = value;
+            } else if (key.equals("parallelism")) {
+                parallelism = Integer.parseInt(value);
+            } else if (key.equals("format")) {
+                format = OrbitResultWriter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } else if (key.equals("precision")) {
+                precision = Integer.parseInt(value);
+            } else if (key.equals("output")) {
+                output = value;
+            } else {
+                System.out.println("Unknown argument " + args[i]);
+                return;
+            }
+        }
+        BodyCatalog bodyCatalog = new BodyRegistry(Main.SYSTEM_PROPERTIES).getCatalog();
+        BodyProperties body = bodyCatalog.get(bodyName);
+        if (body == null) {
+            System.out.println(OrbitStatus.REFERENCE_BODY_MISSING.getMessage());
+            return;
+        }
+        Grid grid;
+        double[] rows;
+        double[] columns;
+        if (ranges[PERIAPSIS] != null && ranges[APOAPSIS] != null) {
+            grid = Grid.APSIDES;
+            rows = range(PERIAPSIS, ranges[PERIAPSIS], steps, body);
+            columns = range(APOAPSIS, ranges[APOAPSIS], steps, body);
+        } else if (ranges[ORBITAL_PERIOD] != null && ranges[ECCENTRICITY] != null) {
+            grid = Grid.PERIOD_ECCENTRICITY;
+            rows = range(ORBITAL_PERIOD, ranges[ORBITAL_PERIOD], steps, body);
+            columns = range(ECCENTRICITY, ranges[ECCENTRICITY], steps, body);
+        } else {
+            System.out.println("Give ranges for either rP and rA or T and e, e.g. rP=70000AS..100000AS");
+            return;
+        }
+        double[] targets = new double[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            targets[i] = targetValues[i] != null ? parse(i, targetValues[i], body) : Double.NaN;
+        }
+        if (resonance != null) {
+            if (targetValues[ORBITAL_PERIOD] != null) {
+                System.out.println("Give either a T target or a resonance, not both");
+                return;
+            }
+            try {
+                targets[ORBITAL_PERIOD] = resonantPeriod(resonance, bodyCatalog);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+        }
+
+        OutputStream stream = output != null ? new FileOutputStream(output) : System.out;
+        OrbitResultWriter writer = new OrbitResultWriter(stream, format);
+        if (format == OrbitResultWriter.Format.CSV) {
+            writer.writeCsvHeader();
+        }
+        int places = precision;
+        Consumer<Match> sink = match -> {
+            try {
+                writer.write(body, match.getOrbit(), OrbitStatus.SOLVED, match.getOrbit().getKnown(), places);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        OrbitSearch search = new OrbitSearch(body, grid, rows, columns, targets, parallelism);
+        Result result;
+        try {
+            result = Double.isNaN(within) ? search.search(top, sink) : search.searchWithin(within, sink);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            search.shutdown();
+        }
+        if (output != null) {
+            writer.close();
+        } else {
+            writer.flush();
+        }
+        System.err.println(String.format("%d of %d candidates solved, %d pruned, %d matches", result.getEvaluated(),
+                (long) rows.length * columns.length, result.getPruned(), result.getMatched()));
+    }
+
+    /**
+     * Hands the best matches to the sink, best first, once every candidate has been searched.
+     *
+     * @return how many candidates were solved, pruned unsolved and handed to the sink
+     */
+    public Result search(int top, Consumer<Match> sink) {
+        TopK best = pool.submit(() -> IntStream.range(0, rows.length).parallel()
+                .collect(() -> new TopK(top), this::searchRow, TopK::addAll)).join();
+        int matched = best.heap.size();
+        Match[] matches = best.heap.toArray(new Match[0]);
+        Arrays.sort(matches, BEST_FIRST);
+        for (Match match : matches) {
+            sink.accept(match);
+        }
+        return new Result(best.evaluated, best.pruned, matched);
+    }
+
+    /**
+     * Hands every match scoring at most the given score to the sink as soon as the row it is in has been searched, one
+     * row at a time, so nothing is kept once it has been handed over. Matches arrive in no particular order.
+     *
+     * @return how many candidates were solved, pruned unsolved and handed to the sink
+     */
+    public Result searchWithin(double maxScore, Consumer<Match> sink) {
+        Streamed streamed = pool.submit(() -> IntStream.range(0, rows.length).parallel()
+                .collect(() -> new Streamed(maxScore, sink), this::searchRow, Streamed::addAll)).join();
+        return new Result(streamed.evaluated, streamed.pruned, streamed.matched);
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void searchRow(Matches top, int row) {
+        searchColumns(top, row);
+        top.endRow();
+    }
+
+    private void searchColumns(Matches top, int row) {
+        double minimumPeriapsis = PrimitiveOrbitSolver.minimumPeriapsis(body);
+        double maximumApoapsis = PrimitiveOrbitSolver.maximumApoapsis(body);
+        PrimitiveOrbit orbit = top.scratch;
+        if (grid == Grid.APSIDES) {
+            double rP = rows[row];
+            if (rP < minimumPeriapsis) {
+                top.pruned += columns.length;
+                return;
+            }
+            // apoapses below this periapsis are not orbits at all
+            int start = Arrays.binarySearch(columns, rP);
+            start = start >= 0 ? start : -start - 1;
+            top.pruned += start;
+            for (int column = start; column < columns.length; column++) {
+                double rA = columns[column];
+                if (rA > maximumApoapsis) {
+                    top.pruned += columns.length - column;
+                    return;
+                }
+                orbit.clear();
+                orbit.setPeriapsisHeight(rP);
+                orbit.setApoapsisHeight(rA);
+                consider(top, orbit);
+            }
+        } else {
+            double t = rows[row];
+            double a = PrimitiveOrbitSolver.calculateAFromT(t, body.getGravitationalParameter());
+            for (int column = 0; column < columns.length; column++) {
+                // periapsis only falls and apoapsis only rises with eccentricity
+                double e = columns[column];
+                if (a * (1 - e) < minimumPeriapsis || a * (1 + e) > maximumApoapsis) {
+                    top.pruned += columns.length - column;
+                    return;
+                }
+                orbit.clear();
+                orbit.setOrbitalPeriod(t);
+                orbit.setEccentricity(e);
+                consider(top, orbit);
+            }
+        }
+    }
+
+    private void consider(Matches top, PrimitiveOrbit orbit) {
+        top.evaluated++;
+        if (PrimitiveOrbitSolver.solve(orbit, body) == OrbitStatus.SOLVED) {
+            top.offer(score(orbit), orbit);
+        }
+    }
+
+    /**
+     * @return the sum of the relative distances from each target, 0 for a perfect match
+     */
+    double score(PrimitiveOrbit orbit) {
+        return distance(orbit.getOrbitalPeriod(), targets[ORBITAL_PERIOD]) +
+                distance(orbit.getSemiMajorAxis(), targets[SEMI_MAJOR_AXIS]) +
+                distance(orbit.getApoapsisHeight(), targets[APOAPSIS]) +
+                distance(orbit.getPeriapsisHeight(), targets[PERIAPSIS]) +
+                distance(orbit.getEccentricity(), targets[ECCENTRICITY]);
+    }
+
+    private static double distance(double value, double target) {
+        if (Double.isNaN(target)) {
+            return 0;
+        }
+        return target != 0 ? Math.abs(value - target) / Math.abs(target) : Math.abs(value);
+    }
+
+    /**
+     * Orders by score, then by period, eccentricity and periapsis so equal scores rank the same on every run.
+     */
+    private static int compare(double score, PrimitiveOrbit orbit, Match match) {
+        int result = Double.compare(score, match.score);
+        if (result == 0) {
+            result = Double.compare(orbit.getOrbitalPeriod(), match.orbit.getOrbitalPeriod());
+        }
+        if (result == 0) {
+            result = Double.compare(orbit.getEccentricity(), match.orbit.getEccentricity());
+        }
+        if (result == 0) {
+            result = Double.compare(orbit.getPeriapsisHeight(), match.orbit.getPeriapsisHeight());
+        }
+        return result;
+    }
+
+    /**
+     * @return steps evenly spaced values from the "from..to" range, ascending
+     */
+    static double[] range(int key, String range, int steps, BodyProperties body) {
+        int split = range.indexOf(RANGE);
+        double from = parse(key, range.substring(0, split), body);
+        double to = parse(key, range.substring(split + RANGE.length()), body);
+        double low = Math.min(from, to);
+        double high = Math.max(from, to);
+        if (steps < 2 || low == high) {
+            return new double[]{low};
+        }
+        double[] values = new double[steps];
+        for (int i = 0; i < steps; i++) {
+            values[i] = low + (high - low) * i / (steps - 1);
+        }
+        return values;
+    }
+
+    /**
+     * @param resonance "body:ratio", the ratio as a number or a fraction such as "2/3"
+     * @return the orbital period that is the ratio of the named body's period around its parent
+     */
+    static double resonantPeriod(String resonance, BodyCatalog bodyCatalog) {
+        int colon = resonance.indexOf(':');
+        BodyProperties body = bodyCatalog.get(colon < 0 ? resonance : resonance.substring(0, colon));
+        if (body == null || body.getParent() == null) {
+            throw new IllegalArgumentException("Resonance needs a body that orbits another, e.g. mun:2/3");
+        }
+        double ratio = 1;
+        if (colon >= 0) {
+            String value = resonance.substring(colon + 1).trim();
+            int slash = value.indexOf('/');
+            ratio = slash < 0 ? Double.parseDouble(value)
+                    : Double.parseDouble(value.substring(0, slash)) / Double.parseDouble(value.substring(slash + 1));
+        }
+        return body.getOrbitalPeriod() * ratio;
+    }
+
+    private static double parse(int key, String value, BodyProperties body) {
+        switch (key) {
+            case ORBITAL_PERIOD:
+                return InputParser.parseOrbitalPeriod(value.trim());
+            case APOAPSIS:
+            case PERIAPSIS:
+                return InputParser.interpretInputHeight(value.trim(), body);
+            default:
+                return Double.parseDouble(value.trim().replace(",", ""));
+        }
+    }
+
+    public static final class Match {
+
+        private final double score;
+        private final PrimitiveOrbit orbit;
+
+        private Match(double score, PrimitiveOrbit orbit) {
+            this.score = score;
+            this.orbit = orbit;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public PrimitiveOrbit getOrbit() {
+            return orbit;
+        }
+    }
+
+    public static final class Result {
+
+        private final long evaluated;
+        private final long pruned;
+        private final long matched;
+
+        private Result(long evaluated, long pruned, long matched) {
+            this.evaluated = evaluated;
+            this.pruned = pruned;
+            this.matched = matched;
+        }
+
+        public long getEvaluated() {
+            return evaluated;
+        }
+
+        public long getPruned() {
+            return pruned;
+        }
+
+        public long getMatched() {
+            return matched;
+        }
+    }
+
+    /**
+     * What one worker has seen of the grid, with an orbit to solve candidates in.
+     */
+    private abstract static class Matches {
+
+        final PrimitiveOrbit scratch = new PrimitiveOrbit();
+        long evaluated;
+        long pruned;
+
+        abstract void offer(double score, PrimitiveOrbit orbit);
+
+        void endRow() {
+        }
+    }
+
+    /**
+     * The best k matches seen by one worker, worst on top of the heap so it is the one replaced.
+     */
+    private static class TopK extends Matches {
+
+        private final int k;
+        private final PriorityQueue<Match> heap;
+
+        TopK(int k) {
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.max(1, k), BEST_FIRST.reversed());
+        }
+
+        @Override
+        void offer(double score, PrimitiveOrbit orbit) {
+            if (heap.size() >= k) {
+                if (k == 0 || compare(score, orbit, heap.peek()) >= 0) {
+                    return;
+                }
+                heap.poll();
+            }
+            PrimitiveOrbit copy = new PrimitiveOrbit();
+            copy.copyFrom(orbit);
+            heap.add(new Match(score, copy));
+        }
+
+        void addAll(TopK other) {
+            for (Match match : other.heap) {
+                offer(match.score, match.orbit);
+            }
+            evaluated += other.evaluated;
+            pruned += other.pruned;
+        }
+    }
+
+    /**
+     * The matches of the row one worker is searching, handed to the sink when the row is done. The sink is shared by
+     * every worker and only called while holding its lock.
+     */
+    private static class Streamed extends Matches {
+
+        private final double maxScore;
+        private final Consumer<Match> sink;
+        private final List<Match> row = new ArrayList<>();
+        private long matched;
+
+        Streamed(double maxScore, Consumer<Match> sink) {
+            this.maxScore = maxScore;
+            this.sink = sink;
+        }
+
+        @Override
+        void offer(double score, PrimitiveOrbit orbit) {
+            if (score <= maxScore) {
+                PrimitiveOrbit copy = new PrimitiveOrbit();
+                copy.copyFrom(orbit);
+                row.add(new Match(score, copy));
+            }
+        }
+
+        @Override
+        void endRow() {
+            if (row.isEmpty()) {
+                return;
+            }
+            synchronized (sink) {
+                for (Match match : row) {
+                    sink.accept(match);
+                }
+            }
+            matched += row.size();
+            row.clear();
+        }
+
+        void addAll(Streamed other) {
+            evaluated += other.evaluated;
+            pruned += other.pruned;
+            matched += other.matched;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the body catalog and a warmed up solver resident and answers orbit queries over a line based TCP protocol
+ * on the loopback interface. Each request is one line of key=value pairs separated by ';', with the keys of
+ * known_values.properties, e.g. "body=kerbin;T=1h 30m;precision=2". Each response is one line with the tab
+ * separated {@link BatchSolver} output columns. Requests may be pipelined: responses come back in request order and
+ * are flushed once no further request is waiting to be read. Solved queries are kept in an {@link OrbitCache}; the
+ * request "stats" answers with its hit and miss counts instead.
+ * <p>
+ * Every connection is handled on its own virtual thread when the JVM has them (Java 21 and later), otherwise on a
+ * cached platform thread pool.
+ */
+public class OrbitServer implements Closeable {
+
+    static final int DEFAULT_PORT = 7070;
+    static final String DELIMITER = "\t";
+    static final String STATS = "stats";
+    static final int DEFAULT_CACHE_SIZE = 65536;
+    private static final int WARM_UP_ROWS = 20000;
+    private static final int WARM_UP_CACHE_SIZE = 1024;
+    private static final int[] COLUMNS = {0, 1, 2, 3, 4, 5, 6};
+
+    private final BatchSolver batchSolver;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+
+    OrbitServer(BatchSolver batchSolver, int port) throws IOException {
+        this.batchSolver = batchSolver;
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.connections = newConnectionExecutor();
+    }
+
+    /**
+     * Usage: server [&lt;port&gt;]; -Dorbit.cache.size sets the number of cached queries, 0 for no cache.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        OrbitServer server = new OrbitServer(new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES),
+                OrbitCache.fromSystemProperty(DEFAULT_CACHE_SIZE)), port);
+        server.warmUp();
+        System.out.println("Listening on port " + server.getPort());
+        server.serve();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> handle(socket));
+        }
+    }
+
+    /**
+     * Solves a spread of every kind of query so the solve path is compiled before the first real request. Warming up
+     * goes through solvers of its own, with and without a cache, and records no metrics, so the report, cache and
+     * metrics of the server only ever count real requests.
+     */
+    public void warmUp() {
+        String[][] queries = {
+                {"kerbin", "1h 30m", "", "", "", "", "2"},
+                {"mun", "", "300000", "", "", "0.1", ""},
+                {"minmus", "", "", "100,000AS", "50000AS", "", "1"},
+                {"kerbin", "", "", "", "80000AS", "0.2", ""},
+                {"kerbin", "", "", "10AS", "", "", ""}
+        };
+        BatchSolver uncached = new BatchSolver(batchSolver.getBodyRegistry());
+        BatchSolver cached = new BatchSolver(batchSolver.getBodyRegistry(), new OrbitCache(WARM_UP_CACHE_SIZE));
+        SolverMetrics.runUnrecorded(() -> {
+            for (int i = 0; i < WARM_UP_ROWS; i++) {
+                uncached.solveRow(queries[i % queries.length], COLUMNS, DELIMITER);
+                cached.solveRow(queries[i % queries.length], COLUMNS, DELIMITER);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdown();
+    }
+
+    /**
+     * @return the response line for one request line
+     */
+    String respond(String request) {
+        if (STATS.equals(request.trim())) {
+            OrbitCache cache = batchSolver.getCache();
+            return cache == null ? "no cache" : "hits=" + cache.getHits() + DELIMITER + "misses=" + cache.getMisses()
+                    + DELIMITER + "size=" + cache.size();
+        }
+        String[] values = new String[BatchSolver.INPUT_COLUMNS.length];
+        for (String pair : request.split(";")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String key = pair.substring(0, equals).trim();
+            for (int column = 0; column < BatchSolver.INPUT_COLUMNS.length; column++) {
+                if (BatchSolver.INPUT_COLUMNS[column].equals(key)) {
+                    values[column] = pair.substring(equals + 1);
+                }
+            }
+        }
+        for (int column = 0; column < values.length; column++) {
+            if (values[column] == null) {
+                values[column] = "";
+            }
+        }
+        try {
+            return batchSolver.solveRow(values, COLUMNS, DELIMITER);
+        } catch (RuntimeException e) {
+            return BatchSolver.failedRow(values[BatchSolver.BODY], DELIMITER, e);
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader input = new BufferedReader(
+                     new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             Writer output = new BufferedWriter(
+                     new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            String request;
+            while ((request = input.readLine()) != null) {
+                if (request.trim().isEmpty()) {
+                    continue;
+                }
+                output.write(respond(request));
+                output.write('\n');
+                if (!input.ready()) {
+                    output.flush();
+                }
+            }
+        } catch (IOException e) {
+            // the client went away, nothing to answer
+        }
+    }
+
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.company;
+
+import java.io.PrintStream;
+
+public class OrbitSolver {
+
+    static final String PERIAPSIS_ABOVE_APOAPSIS = "Periapsis is higher than apoapsis";
+
+    private final PrintStream messages;
+
+    /**
+     * @param messages where informational notes such as "Assuming circular orbit" go, or null to drop them
+     */
+    OrbitSolver(PrintStream messages) {
+        this.messages = messages;
+    }
+
+    public boolean knownValuesAreValid(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        String problem = findProblemWithKnownValues(bodyProperties, orbitalProperties);
+        if (problem != null) {
+            note(problem);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return a description of why the known values cannot be solved, or null if they can
+     */
+    public String findProblemWithKnownValues(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        return checkKnownValues(bodyProperties, orbitalProperties).getMessage();
+    }
+
+    /**
+     * @return {@link OrbitStatus#SOLVED} if the known values can be solved, otherwise why not
+     */
+    public OrbitStatus checkKnownValues(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        long start = SolverMetrics.start();
+        int known = knownMask(orbitalProperties);
+        OrbitStatus status = bodyProperties == null
+                ? OrbitStatus.REFERENCE_BODY_MISSING
+                : PrimitiveOrbitSolver.checkKnownValues(known);
+        SolverMetrics.record(SolverMetrics.Stage.VALIDATE, known, status, start);
+        return status;
+    }
+
+    /**
+     * Throwing form of {@link #solve} for callers that treat an impossible orbit as an error.
+     */
+    public void calculateUnknownValues(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        OrbitStatus status = solve(bodyProperties, orbitalProperties);
+        if (status != OrbitStatus.SOLVED) {
+            throw new ImpossibleOrbitException(describe(status, orbitalProperties));
+        }
+    }
+
+    /**
+     * Calculates the unknown values without throwing. They are only filled in when the orbit is
+     * {@link OrbitStatus#SOLVED}; otherwise the status says why it was rejected and the values are left as they were.
+     */
+    public OrbitStatus solve(BodyProperties bodyProperties, OrbitalProperties orbitalProperties) {
+        OrbitStatus status = checkKnownValues(bodyProperties, orbitalProperties);
+        if (status != OrbitStatus.SOLVED) {
+            return status;
+        }
+        PrimitiveOrbit orbit = new PrimitiveOrbit();
+        orbit.copyFrom(orbitalProperties);
+        // the setters mark calculated values known too, so the branch has to be taken before solving
+        int known = orbit.getKnown();
+        long start = SolverMetrics.start();
+        PrimitiveOrbitSolver.calculate(orbit, bodyProperties);
+        SolverMetrics.record(SolverMetrics.Stage.SOLVE, known, OrbitStatus.SOLVED, start);
+        start = SolverMetrics.start();
+        status = PrimitiveOrbitSolver.validate(orbit, bodyProperties);
+        SolverMetrics.record(SolverMetrics.Stage.POST_VALIDATE, known, status, start);
+        if (orbit.isCircularAssumed()) {
+            note("Assuming circular orbit");
+        }
+        if (status == OrbitStatus.SOLVED) {
+            copyUnknownValues(orbit, orbitalProperties);
+        }
+        return status;
+    }
+
+    /**
+     * @return the message for a rejection, naming whichever of apoapsis and periapsis was calculated when they are
+     * the wrong way round
+     */
+    static String describe(OrbitStatus status, OrbitalProperties orbitalProperties) {
+        return isPeriapsisAboveApoapsis(status, knownMask(orbitalProperties))
+                ? PERIAPSIS_ABOVE_APOAPSIS : status.getMessage();
+    }
+
+    /**
+     * @param known the {@link PrimitiveOrbit} known mask the orbit was given
+     * @return true if the rejection is to be reported as {@link #PERIAPSIS_ABOVE_APOAPSIS}: apoapsis and periapsis
+     * came out the wrong way round and the periapsis was calculated, or both were given, as
+     * {@link OrbitalProperties#setPeriapsisHeight} reports it
+     */
+    static boolean isPeriapsisAboveApoapsis(OrbitStatus status, int known) {
+        return status == OrbitStatus.APOAPSIS_BELOW_PERIAPSIS
+                && ((known & PrimitiveOrbit.PERIAPSIS_HEIGHT) == 0 || (known & PrimitiveOrbit.APOAPSIS_HEIGHT) != 0);
+    }
+
+    private static void copyUnknownValues(PrimitiveOrbit orbit, OrbitalProperties orbitalProperties) {
+        if (orbitalProperties.getOrbitalPeriod() == null) {
+            orbitalProperties.setOrbitalPeriod(orbit.getOrbitalPeriod());
+        }
+        if (orbitalProperties.getSemiMajorAxis() == null) {
+            orbitalProperties.setSemiMajorAxis(orbit.getSemiMajorAxis());
+        }
+        if (orbitalProperties.getApoapsisHeight() == null) {
+            orbitalProperties.setApoapsisHeight(orbit.getApoapsisHeight());
+        }
+        if (orbitalProperties.getPeriapsisHeight() == null) {
+            orbitalProperties.setPeriapsisHeight(orbit.getPeriapsisHeight());
+        }
+        if (orbitalProperties.getEccentricity() == null) {
+            orbitalProperties.setEccentricity(orbit.getEccentricity());
+        }
+        orbitalProperties.setApoapsisHeightAS(orbit.getApoapsisHeightAS());
+        orbitalProperties.setPeriapsisHeightAS(orbit.getPeriapsisHeightAS());
+    }
+
+    static int knownMask(OrbitalProperties orbitalProperties) {
+        int known = 0;
+        known |= orbitalProperties.getOrbitalPeriod() != null ? PrimitiveOrbit.ORBITAL_PERIOD : 0;
+        known |= orbitalProperties.getSemiMajorAxis() != null ? PrimitiveOrbit.SEMI_MAJOR_AXIS : 0;
+        known |= orbitalProperties.getApoapsisHeight() != null ? PrimitiveOrbit.APOAPSIS_HEIGHT : 0;
+        known |= orbitalProperties.getPeriapsisHeight() != null ? PrimitiveOrbit.PERIAPSIS_HEIGHT : 0;
+        known |= orbitalProperties.getEccentricity() != null ? PrimitiveOrbit.ECCENTRICITY : 0;
+        return known;
+    }
+
+    private void note(String message) {
+        if (messages != null) {
+            messages.println(message);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.company;
+
+/**
+ * The outcome of solving an orbit. Each status has a code that stands for it in binary output and in an
+ * {@link OrbitStore}; codes are never changed or reused, so new statuses take the next free code.
+ */
+public enum OrbitStatus {
+
+    SOLVED(0, null),
+    REFERENCE_BODY_MISSING(1, "Reference body missing"),
+    BOTH_PERIOD_AND_SEMI_MAJOR_AXIS(2, "Don't provide both orbital period (T) and semi major axis (a)"),
+    NOT_ENOUGH_INFORMATION(3, "Not enough information provided"),
+    TOO_MUCH_INFORMATION(4, "Too much information provided!"),
+    APOAPSIS_BELOW_PERIAPSIS(5, "Apoapsis is lower than periapsis"),
+    BELOW_SURFACE(6, "This orbit is below surface"),
+    INSIDE_ATMOSPHERE(7, "This orbit is inside the atmosphere"),
+    OUTSIDE_SPHERE_OF_INFLUENCE(8, "This orbit is outside this body's sphere of influence");
+
+    private static final OrbitStatus[] BY_CODE = new OrbitStatus[values().length];
+
+    static {
+        for (OrbitStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final byte code;
+    private final String message;
+
+    OrbitStatus(int code, String message) {
+        this.code = (byte) code;
+        this.message = message;
+    }
+
+    /**
+     * @return the status with the code
+     * @throws IllegalArgumentException if no status has the code
+     */
+    public static OrbitStatus fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown orbit status code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
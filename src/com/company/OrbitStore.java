@@ -0,0 +1,384 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A file of solved orbits, one fixed {@link #RECORD_SIZE} byte record each, memory-mapped so records are appended
+ * and read in place without copying them onto the heap. A record's id is its position in the file, so finding a
+ * record is one multiplication and any record can be read on its own.
+ * <p>
+ * The file starts with a {@link #HEADER_SIZE} byte header: the magic number "ORBS", the format version, the record
+ * size, the number of bodies (an int at offset 12), the record count (a long at offset 16) and, from offset 64, the
+ * body table: the name of each body the records refer to, as an unsigned short length and UTF-8 bytes. Records name
+ * their body by its position in this table rather than by {@link BodyProperties#getId()}, which is only an index
+ * into one catalog and changes when bodies are added or removed, so a store stays readable as the system changes.
+ * Version 2 records are big-endian with the doubles 8-byte aligned: body (int, -1 for none), status code (byte,
+ * or {@link OrbitResultWriter#INVALID_INPUT}), three bytes of padding, then T, a, rA, rP, rA_AS, rP_AS and e as
+ * doubles, NaN for orbits that were not solved. Status codes are those of {@link OrbitStatus#getCode()}: 0 solved,
+ * 1 reference body missing, 2 both period and semi-major axis, 3 not enough information, 4 too much information,
+ * 5 apoapsis below periapsis, 6 below surface, 7 inside atmosphere, 8 outside sphere of influence. The file may be
+ * longer than its records, as it grows ahead of them; the count in the header is what counts. Version 1 stores,
+ * which held catalog ids, are refused.
+ * <p>
+ * One writer at a time. Any number of threads may read alongside it: a record and its body are written before the
+ * count that includes them is published, so every record below {@link #size()} is complete.
+ */
+public class OrbitStore implements Closeable {
+
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 4096;
+    public static final int RECORD_SIZE = 64;
+    static final int MAGIC = 0x4f524253;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int BODY_COUNT_OFFSET = 12;
+    private static final int COUNT_OFFSET = 16;
+    private static final int BODY_TABLE_OFFSET = 64;
+
+    private static final int BODY_ID = 0;
+    private static final int STATUS = 4;
+    private static final int ORBITAL_PERIOD = 8;
+    private static final int SEMI_MAJOR_AXIS = 16;
+    private static final int APOAPSIS_HEIGHT = 24;
+    private static final int PERIAPSIS_HEIGHT = 32;
+    private static final int APOAPSIS_HEIGHT_AS = 40;
+    private static final int PERIAPSIS_HEIGHT_AS = 48;
+    private static final int ECCENTRICITY = 56;
+
+    // a segment boundary always falls between records, as the header and records are both multiples of 64 bytes
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int INITIAL_MAPPING = 1 << 16;
+
+
+    private final FileChannel channel;
+    private final boolean writable;
+    // replaced, never changed in place, so a reader always has a complete array
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile String[] bodyNames = new String[0];
+    private volatile long count;
+    // only used by the writer
+    private final Map<String, Integer> bodyIndexes = new HashMap<>();
+    private int bodyTableEnd = BODY_TABLE_OFFSET;
+
+    private OrbitStore(FileChannel channel, boolean writable) {
+        this.channel = channel;
+        this.writable = writable;
+    }
+
+    /**
+     * Usage: store &lt;input file&gt; &lt;store file&gt;; solves the input like the fast batch and appends every row
+     * to the store, creating it if needed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: store <input file> <store file>");
+            return;
+        }
+        FastBatchSolver fastBatchSolver = new FastBatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES).getCatalog());
+        Path storePath = Paths.get(args[2]);
+        try (MappedOrbitReader reader = MappedOrbitReader.open(Paths.get(args[1]), fastBatchSolver.getBodyCatalog());
+             OrbitStore store = storePath.toFile().exists() ? open(storePath, true) : create(storePath)) {
+            long before = store.size();
+            fastBatchSolver.solve(reader, store);
+            System.out.println(String.format("Appended %d records, %d in %s", store.size() - before, store.size(),
+                    storePath));
+        }
+        fastBatchSolver.getReport().print(System.err);
+    }
+
+    /**
+     * Creates an empty store, replacing any file already at the path.
+     */
+    public static OrbitStore create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OrbitStore store = new OrbitStore(channel, true);
+        MappedByteBuffer header = store.map(0, INITIAL_MAPPING);
+        header.putInt(0, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        header.putInt(BODY_COUNT_OFFSET, 0);
+        header.putLong(COUNT_OFFSET, 0);
+        return store;
+    }
+
+    public static OrbitStore open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        OrbitStore store = new OrbitStore(channel, writable);
+        try {
+            if (channel.size() < BODY_TABLE_OFFSET) {
+                throw new IOException("Not an orbit store: " + path);
+            }
+            long fileSize = channel.size();
+            for (long position = 0; position < fileSize; position += SEGMENT_SIZE) {
+                store.map(position, (int) Math.min(SEGMENT_SIZE, fileSize - position));
+            }
+            MappedByteBuffer header = store.segments[0];
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not an orbit store: " + path);
+            }
+            if (header.getInt(VERSION_OFFSET) != VERSION || header.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+                throw new IOException("Unsupported orbit store version " + header.getInt(VERSION_OFFSET) + ": " + path);
+            }
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Orbit store is truncated: " + path);
+            }
+            store.readBodyTable(header.getInt(BODY_COUNT_OFFSET), path);
+            store.count = header.getLong(COUNT_OFFSET);
+            if (HEADER_SIZE + store.count * RECORD_SIZE > fileSize) {
+                throw new IOException("Orbit store is truncated: " + path);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * @return the number of records, which is also the id the next record will get
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @return the id of the new record
+     */
+    public long append(BodyProperties body, PrimitiveOrbit orbit, OrbitStatus status) throws IOException {
+        boolean solved = status == OrbitStatus.SOLVED;
+        return append(body, status.getCode(),
+                solved ? orbit.getOrbitalPeriod() : Double.NaN, solved ? orbit.getSemiMajorAxis() : Double.NaN,
+                solved ? orbit.getApoapsisHeight() : Double.NaN, solved ? orbit.getPeriapsisHeight() : Double.NaN,
+                solved ? orbit.getApoapsisHeightAS() : Double.NaN, solved ? orbit.getPeriapsisHeightAS() : Double.NaN,
+                solved ? orbit.getEccentricity() : Double.NaN);
+    }
+
+    /**
+     * @return the id of the new record
+     */
+    public long appendInvalidInput(BodyProperties body) throws IOException {
+        return append(body, OrbitResultWriter.INVALID_INPUT, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    private long append(BodyProperties body, byte status, double orbitalPeriod, double semiMajorAxis,
+                        double apoapsisHeight, double periapsisHeight, double apoapsisHeightAS,
+                        double periapsisHeightAS, double eccentricity) throws IOException {
+        if (!writable) {
+            throw new IOException("Orbit store is open read only");
+        }
+        int bodyIndex = bodyIndex(body);
+        long id = count;
+        long offset = offset(id);
+        MappedByteBuffer segment = writableSegment(offset);
+        int position = (int) (offset & SEGMENT_MASK);
+        segment.putInt(position + BODY_ID, bodyIndex);
+        segment.put(position + STATUS, status);
+        segment.putDouble(position + ORBITAL_PERIOD, orbitalPeriod);
+        segment.putDouble(position + SEMI_MAJOR_AXIS, semiMajorAxis);
+        segment.putDouble(position + APOAPSIS_HEIGHT, apoapsisHeight);
+        segment.putDouble(position + PERIAPSIS_HEIGHT, periapsisHeight);
+        segment.putDouble(position + APOAPSIS_HEIGHT_AS, apoapsisHeightAS);
+        segment.putDouble(position + PERIAPSIS_HEIGHT_AS, periapsisHeightAS);
+        segment.putDouble(position + ECCENTRICITY, eccentricity);
+        // the record is complete before the count says it exists
+        segments[0].putLong(COUNT_OFFSET, id + 1);
+        count = id + 1;
+        return id;
+    }
+
+    /**
+     * @return the position of the body in the body table, adding it to the table if it is not there yet
+     */
+    private int bodyIndex(BodyProperties body) throws IOException {
+        if (body == null) {
+            return -1;
+        }
+        Integer index = bodyIndexes.get(body.getName());
+        if (index != null) {
+            return index;
+        }
+        byte[] name = body.getName().getBytes(StandardCharsets.UTF_8);
+        if (bodyTableEnd + 2 + name.length > HEADER_SIZE) {
+            throw new IOException("No room left in the body table for " + body.getName());
+        }
+        MappedByteBuffer header = segments[0];
+        header.putShort(bodyTableEnd, (short) name.length);
+        for (int i = 0; i < name.length; i++) {
+            header.put(bodyTableEnd + 2 + i, name[i]);
+        }
+        bodyTableEnd += 2 + name.length;
+        String[] names = Arrays.copyOf(bodyNames, bodyNames.length + 1);
+        names[names.length - 1] = body.getName();
+        header.putInt(BODY_COUNT_OFFSET, names.length);
+        bodyNames = names;
+        bodyIndexes.put(body.getName(), names.length - 1);
+        return names.length - 1;
+    }
+
+    private void readBodyTable(int bodyCount, Path path) throws IOException {
+        MappedByteBuffer header = segments[0];
+        String[] names = new String[bodyCount];
+        for (int i = 0; i < bodyCount; i++) {
+            if (bodyTableEnd + 2 > HEADER_SIZE) {
+                throw new IOException("Orbit store body table is corrupt: " + path);
+            }
+            int length = header.getShort(bodyTableEnd) & 0xffff;
+            if (bodyTableEnd + 2 + length > HEADER_SIZE) {
+                throw new IOException("Orbit store body table is corrupt: " + path);
+            }
+            byte[] name = new byte[length];
+            for (int j = 0; j < length; j++) {
+                name[j] = header.get(bodyTableEnd + 2 + j);
+            }
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            bodyIndexes.put(names[i], i);
+            bodyTableEnd += 2 + length;
+        }
+        bodyNames = names;
+    }
+
+    /**
+     * @return the name of the body of the record, or null if it has none; look it up in the current catalog to get
+     * its properties
+     */
+    public String getBodyName(long id) {
+        int bodyIndex = segment(id).getInt(position(id) + BODY_ID);
+        return bodyIndex < 0 ? null : bodyNames[bodyIndex];
+    }
+
+    /**
+     * @return the status of the record, or null if its input could not be read
+     */
+    public OrbitStatus getStatus(long id) {
+        byte status = segment(id).get(position(id) + STATUS);
+        return status == OrbitResultWriter.INVALID_INPUT ? null : OrbitStatus.fromCode(status);
+    }
+
+    public double getOrbitalPeriod(long id) {
+        return segment(id).getDouble(position(id) + ORBITAL_PERIOD);
+    }
+
+    public double getSemiMajorAxis(long id) {
+        return segment(id).getDouble(position(id) + SEMI_MAJOR_AXIS);
+    }
+
+    public double getApoapsisHeight(long id) {
+        return segment(id).getDouble(position(id) + APOAPSIS_HEIGHT);
+    }
+
+    public double getPeriapsisHeight(long id) {
+        return segment(id).getDouble(position(id) + PERIAPSIS_HEIGHT);
+    }
+
+    public double getApoapsisHeightAS(long id) {
+        return segment(id).getDouble(position(id) + APOAPSIS_HEIGHT_AS);
+    }
+
+    public double getPeriapsisHeightAS(long id) {
+        return segment(id).getDouble(position(id) + PERIAPSIS_HEIGHT_AS);
+    }
+
+    public double getEccentricity(long id) {
+        return segment(id).getDouble(position(id) + ECCENTRICITY);
+    }
+
+    /**
+     * Fills a reusable orbit with a solved record, for callers that want every value at once.
+     *
+     * @return the status of the record, or null if its input could not be read
+     */
+    public OrbitStatus read(long id, PrimitiveOrbit orbit) {
+        MappedByteBuffer segment = segment(id);
+        int position = position(id);
+        orbit.clear();
+        byte status = segment.get(position + STATUS);
+        if (status == OrbitStatus.SOLVED.getCode()) {
+            orbit.setOrbitalPeriod(segment.getDouble(position + ORBITAL_PERIOD));
+            orbit.setSemiMajorAxis(segment.getDouble(position + SEMI_MAJOR_AXIS));
+            orbit.setApoapsisHeight(segment.getDouble(position + APOAPSIS_HEIGHT));
+            orbit.setPeriapsisHeight(segment.getDouble(position + PERIAPSIS_HEIGHT));
+            orbit.setApoapsisHeightAS(segment.getDouble(position + APOAPSIS_HEIGHT_AS));
+            orbit.setPeriapsisHeightAS(segment.getDouble(position + PERIAPSIS_HEIGHT_AS));
+            orbit.setEccentricity(segment.getDouble(position + ECCENTRICITY));
+        }
+        return status == OrbitResultWriter.INVALID_INPUT ? null : OrbitStatus.fromCode(status);
+    }
+
+    /**
+     * Writes appended records through to the file.
+     */
+    public void force() {
+        if (writable) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private static long offset(long id) {
+        return HEADER_SIZE + id * RECORD_SIZE;
+    }
+
+    private MappedByteBuffer segment(long id) {
+        // count first: once it includes the record, the segments array holds a mapping that covers it
+        long size = count;
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No record " + id + " in a store of " + size);
+        }
+        return segments[(int) (offset(id) >>> SEGMENT_BITS)];
+    }
+
+    private static int position(long id) {
+        return (int) (offset(id) & SEGMENT_MASK);
+    }
+
+    /**
+     * @return the segment holding the record at the offset, mapping it or growing its mapping first if needed
+     */
+    private MappedByteBuffer writableSegment(long offset) throws IOException {
+        int index = (int) (offset >>> SEGMENT_BITS);
+        int end = (int) (offset & SEGMENT_MASK) + RECORD_SIZE;
+        MappedByteBuffer[] mapped = segments;
+        if (index < mapped.length && mapped[index].capacity() >= end) {
+            return mapped[index];
+        }
+        int size = index < mapped.length ? mapped[index].capacity() : INITIAL_MAPPING;
+        while (size < end) {
+            size = (int) Math.min(SEGMENT_SIZE, 2L * size);
+        }
+        return map((long) index << SEGMENT_BITS, size);
+    }
+
+    private MappedByteBuffer map(long position, int size) throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        MappedByteBuffer segment = channel.map(mode, position, size);
+        int index = (int) (position >>> SEGMENT_BITS);
+        MappedByteBuffer[] mapped = Arrays.copyOf(segments, Math.max(segments.length, index + 1));
+        mapped[index] = segment;
+        segments = mapped;
+        return segment;
+    }
+}
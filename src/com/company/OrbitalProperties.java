@@ -71,7 +71,7 @@ public class OrbitalProperties {
             throw new RecalculationException("Attempted recalculation of periapsis height");
         }
         if (getApoapsisHeight() != null && getApoapsisHeight() < periapsisHeight) {
-            throw new ImpossibleOrbitException("Periapsis is higher than apoapsis");
+            throw new ImpossibleOrbitException(OrbitSolver.PERIAPSIS_ABOVE_APOAPSIS);
         }
         this.periapsisHeight = periapsisHeight;
     }
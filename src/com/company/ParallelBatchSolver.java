@@ -0,0 +1,116 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs {@link BatchSolver} rows across a fork/join pool. The input is read in chunks so memory stays bounded, each
+ * chunk is solved in parallel and its results are written in input order before the next chunk is read. A row that
+ * fails for any reason gets the reason in its result column without stopping the other rows.
+ */
+public class ParallelBatchSolver {
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final BatchSolver batchSolver;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    ParallelBatchSolver(BatchSolver batchSolver, int parallelism, int chunkSize) {
+        this.batchSolver = batchSolver;
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Usage: parallel &lt;parallelism&gt; &lt;input file&gt; [&lt;output file&gt;]; -Dorbit.cache.size as for batch.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: parallel <parallelism> <input file> [<output file>]");
+            return;
+        }
+        int parallelism = Integer.parseInt(args[1]);
+        BatchSolver batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES),
+                OrbitCache.fromSystemProperty(0));
+        ParallelBatchSolver parallelBatchSolver = new ParallelBatchSolver(batchSolver, parallelism, DEFAULT_CHUNK_SIZE);
+        try (BufferedReader input = new BufferedReader(new FileReader(args[2]));
+             Writer output = new BufferedWriter(
+                     args.length > 3 ? new FileWriter(args[3]) : new OutputStreamWriter(System.out))) {
+            parallelBatchSolver.solve(input, output);
+        } finally {
+            parallelBatchSolver.shutdown();
+        }
+        batchSolver.printReport(System.err);
+    }
+
+    public void solve(BufferedReader input, Writer output) throws IOException {
+        String header = input.readLine();
+        if (header == null) {
+            return;
+        }
+        String delimiter = BatchSolver.findDelimiter(header);
+        int[] columns = BatchSolver.findColumns(header.split(delimiter, -1));
+        BatchSolver.writeHeader(output, delimiter);
+        String[] lines = new String[chunkSize];
+        String[] results = new String[chunkSize];
+        int count;
+        while ((count = readChunk(input, lines)) > 0) {
+            solveChunk(lines, results, count, columns, delimiter);
+            for (int i = 0; i < count; i++) {
+                output.write(results[i]);
+                output.write(System.lineSeparator());
+            }
+        }
+        output.flush();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void solveChunk(String[] lines, String[] results, int count, int[] columns, String delimiter)
+            throws IOException {
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel()
+                    .forEach(i -> results[i] = solveRow(lines[i], columns, delimiter))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving batch", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to solve batch", e.getCause());
+        }
+    }
+
+    private String solveRow(String line, int[] columns, String delimiter) {
+        String[] values = line.split(delimiter, -1);
+        try {
+            return batchSolver.solveRow(values, columns, delimiter);
+        } catch (RuntimeException e) {
+            // solveRow records a row only once its result is made, so this is the row's only entry
+            batchSolver.getReport().recordInvalidInput();
+            String body = columns[BatchSolver.BODY] >= 0 && columns[BatchSolver.BODY] < values.length
+                    ? values[columns[BatchSolver.BODY]].trim() : null;
+            return BatchSolver.failedRow(body, delimiter, e);
+        }
+    }
+
+    private static int readChunk(BufferedReader input, String[] lines) throws IOException {
+        int count = 0;
+        String line;
+        while (count < lines.length && (line = input.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                lines[count++] = line;
+            }
+        }
+        return count;
+    }
+}
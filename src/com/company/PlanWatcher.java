@@ -0,0 +1,462 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Keeps mission plans solved while they are edited. Each plan is a batch file in the {@link BatchSolver} format, or
+ * known_values.properties, which is treated as a plan of one row. When a plan changes on disk only the rows whose line
+ * is not somewhere in the previous version are solved again; when system.properties changes only the rows of bodies
+ * whose entry changed are. After the first read just the rows whose result changed are printed, as the old result ("-")
+ * and the new one ("+").
+ */
+public class PlanWatcher implements Closeable {
+
+    private static final String KNOWN_VALUES = "resources/known_values.properties";
+    private static final long SETTLE_MILLIS = 50;
+    private static final byte NEWLINE = '\n';
+
+    private final BodyRegistry bodyRegistry;
+    private final BatchSolver batchSolver;
+    private final Path systemProperties;
+    private final Map<Path, Plan> plans = new LinkedHashMap<>();
+    private final PrintStream output;
+    private WatchService watchService;
+
+    PlanWatcher(String systemProperties, List<Path> planFiles, PrintStream output) throws IOException {
+        this.bodyRegistry = new BodyRegistry(systemProperties);
+        this.batchSolver = new BatchSolver(bodyRegistry);
+        this.systemProperties = Paths.get(systemProperties).toAbsolutePath().normalize();
+        this.output = output;
+        for (Path planFile : planFiles) {
+            Path path = planFile.toAbsolutePath().normalize();
+            plans.put(path, new Plan(planFile, path.toString().endsWith(".properties")));
+        }
+    }
+
+    /**
+     * Usage: watch [&lt;batch file&gt;...]
+     * <p>
+     * Watches known_values.properties, system.properties and any batch files given until the process is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> planFiles = new ArrayList<>();
+        planFiles.add(Paths.get(KNOWN_VALUES));
+        for (int i = 1; i < args.length; i++) {
+            planFiles.add(Paths.get(args[i]));
+        }
+        try (PlanWatcher watcher = new PlanWatcher(Main.SYSTEM_PROPERTIES, planFiles, System.out)) {
+            watcher.solveAll();
+            watcher.watch();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads and solves every plan from scratch, printing a summary line for each.
+     */
+    public void solveAll() {
+        for (Plan plan : plans.values()) {
+            refresh(plan);
+        }
+    }
+
+    /**
+     * Blocks, handling changes to the watched files as they are saved, until the thread is interrupted or the
+     * watcher is closed.
+     */
+    public void watch() throws IOException, InterruptedException {
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        directories.add(systemProperties.getParent());
+        for (Path path : plans.keySet()) {
+            directories.add(path.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        output.println("Watching " + directories.size() + " directories, Ctrl+C to stop");
+        while (true) {
+            WatchKey key = watchService.take();
+            // editors often save in more than one write, so let them finish and handle the file once
+            Thread.sleep(SETTLE_MILLIS);
+            Set<Path> changed = new LinkedHashSet<>();
+            for (; key != null; key = watchService.poll()) {
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path) {
+                        changed.add(directory.resolve((Path) event.context()).normalize());
+                    }
+                }
+                key.reset();
+            }
+            if (changed.contains(systemProperties)) {
+                reloadBodies();
+            }
+            for (Path path : changed) {
+                if (plans.containsKey(path)) {
+                    refresh(path);
+                }
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads the plan at the path again and solves the rows that changed since it was last read.
+     */
+    void refresh(Path path) {
+        refresh(plans.get(path.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Reloads system.properties and solves again every row of every plan that refers to a body that was added,
+     * removed or changed.
+     */
+    void reloadBodies() {
+        long start = System.nanoTime();
+        BodyCatalog before = bodyRegistry.getCatalog();
+        try {
+            bodyRegistry.reload();
+        } catch (IOException | RuntimeException e) {
+            output.println(systemProperties.getFileName() + ": " + e.getMessage() + ", keeping the previous bodies");
+            return;
+        }
+        BodyCatalog after = bodyRegistry.getCatalog();
+        Set<String> changedBodies = new HashSet<>();
+        addChangedBodies(before, after, changedBodies);
+        addChangedBodies(after, before, changedBodies);
+        int solved = 0;
+        int changed = 0;
+        for (Plan plan : plans.values()) {
+            for (int line = 1; line < plan.results.length; line++) {
+                if (plan.bodies[line] != null && changedBodies.contains(plan.bodies[line])) {
+                    String result = plan.solveLine(line);
+                    solved++;
+                    if (!result.equals(plan.results[line])) {
+                        printChange(plan, line, plan.results[line], result);
+                        changed++;
+                    }
+                    plan.results[line] = result;
+                }
+            }
+        }
+        output.println(String.format("%s: %s changed, %d rows solved, %d results changed (%.1f ms)",
+                systemProperties.getFileName(), changedBodies.isEmpty() ? "no body" : String.join(", ", changedBodies),
+                solved, changed, (System.nanoTime() - start) / 1e6));
+    }
+
+    private static void addChangedBodies(BodyCatalog catalog, BodyCatalog other, Set<String> changedBodies) {
+        for (int id = 0; id < catalog.size(); id++) {
+            BodyProperties body = catalog.get(id);
+            BodyProperties otherBody = other.get(body.getName());
+            if (otherBody == null || !body.hasSameParameters(otherBody)) {
+                changedBodies.add(body.getName());
+            }
+        }
+    }
+
+    private void refresh(Plan plan) {
+        long start = System.nanoTime();
+        byte[] content;
+        try {
+            content = plan.read();
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            output.println(plan.name + ": not found, keeping the previous results");
+            return;
+        } catch (IOException e) {
+            output.println(plan.name + ": " + e.getMessage() + ", keeping the previous results");
+            return;
+        }
+        int solved = plan.update(content);
+        output.println(String.format("%s: %d of %d rows solved, %d results changed (%.1f ms)", plan.name, solved,
+                Math.max(plan.results.length - 1, 0), plan.changed, (System.nanoTime() - start) / 1e6));
+    }
+
+    private void printChange(Plan plan, int line, String before, String after) {
+        if (before != null) {
+            output.println(plan.name + ":" + (line + 1) + " - " + before);
+        }
+        if (after != null) {
+            output.println(plan.name + ":" + (line + 1) + " + " + after);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * The last read content of one plan file, where each line starts, a hash of each line, and the result and body of
+     * each row. Line 0 is the header; blank lines have no result.
+     */
+    private final class Plan {
+
+        private final Path path;
+        private final String name;
+        private final boolean properties;
+        private byte[] content = new byte[0];
+        private int[] lineStarts = {0};
+        private int[] lineHashes = new int[0];
+        private String[] results = new String[0];
+        private String[] bodies = new String[0];
+        private String delimiter;
+        private int[] columns;
+        private int changed;
+        private boolean loaded;
+
+        Plan(Path path, boolean properties) {
+            this.path = path;
+            this.name = path.getFileName().toString();
+            this.properties = properties;
+        }
+
+        /**
+         * @return the file as bytes; a properties file is turned into a tab separated header and row
+         */
+        byte[] read() throws IOException {
+            if (!properties) {
+                return Files.readAllBytes(path);
+            }
+            Properties knownValues = Main.loadProperties(path.toString());
+            String[] values = new String[BatchSolver.INPUT_COLUMNS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = InputParser.defaultIfNull(knownValues.getProperty(BatchSolver.INPUT_COLUMNS[i]), "");
+            }
+            return (String.join("\t", BatchSolver.INPUT_COLUMNS) + "\n" + String.join("\t", values) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Keeps the result of every line that is also in the old content, matched by hash and then by bytes, and
+         * solves the rest; a changed header makes every row be solved again. Lines are compared in step from both
+         * ends first, so only the lines between the first and last difference go into a table by hash.
+         *
+         * @return how many rows were solved
+         */
+        int update(byte[] newContent) {
+            byte[] oldContent = content;
+            int[] oldLineStarts = lineStarts;
+            int[] oldHashes = lineHashes;
+            String[] oldResults = results;
+            String[] oldBodies = bodies;
+            int oldCount = oldHashes.length;
+            int[] newLineStarts = findLineStarts(newContent);
+            int newCount = newLineStarts.length - 1;
+            int[] newHashes = new int[newCount];
+            for (int line = 0; line < newCount; line++) {
+                newHashes[line] = hash(newContent, newLineStarts, line);
+            }
+            // the old line each new line is the same as, or -1 for a line to solve
+            int[] sources = new int[newCount];
+            Arrays.fill(sources, -1);
+            boolean[] kept = new boolean[oldCount];
+            int prefix = 0;
+            int suffix = 0;
+            boolean headerChanged = oldCount == 0 || newCount == 0
+                    || !sameLine(oldContent, oldLineStarts, oldHashes, 0, newContent, newLineStarts, newHashes, 0);
+            if (!headerChanged) {
+                int shorter = Math.min(oldCount, newCount);
+                while (prefix < shorter && sameLine(oldContent, oldLineStarts, oldHashes, prefix,
+                        newContent, newLineStarts, newHashes, prefix)) {
+                    sources[prefix] = prefix;
+                    kept[prefix] = true;
+                    prefix++;
+                }
+                while (suffix < shorter - prefix && sameLine(oldContent, oldLineStarts, oldHashes,
+                        oldCount - 1 - suffix, newContent, newLineStarts, newHashes, newCount - 1 - suffix)) {
+                    sources[newCount - 1 - suffix] = oldCount - 1 - suffix;
+                    kept[oldCount - 1 - suffix] = true;
+                    suffix++;
+                }
+                Map<Integer, Deque<Integer>> oldLinesByHash = new HashMap<>();
+                for (int line = prefix; line < oldCount - suffix; line++) {
+                    oldLinesByHash.computeIfAbsent(oldHashes[line], hash -> new ArrayDeque<>()).add(line);
+                }
+                for (int line = prefix; line < newCount - suffix; line++) {
+                    Deque<Integer> candidates = oldLinesByHash.get(newHashes[line]);
+                    if (candidates == null) {
+                        continue;
+                    }
+                    for (Iterator<Integer> i = candidates.iterator(); i.hasNext(); ) {
+                        int oldLine = i.next();
+                        if (sameLine(oldContent, oldLineStarts, oldHashes, oldLine,
+                                newContent, newLineStarts, newHashes, line)) {
+                            sources[line] = oldLine;
+                            kept[oldLine] = true;
+                            i.remove();
+                            break;
+                        }
+                    }
+                }
+            }
+            content = newContent;
+            lineStarts = newLineStarts;
+            lineHashes = newHashes;
+            results = new String[newCount];
+            bodies = new String[newCount];
+            if (headerChanged && newCount > 0) {
+                String header = line(0);
+                delimiter = BatchSolver.findDelimiter(header);
+                columns = BatchSolver.findColumns(header.split(delimiter, -1));
+            }
+            int solved = 0;
+            for (int line = 1; line < newCount; line++) {
+                if (sources[line] >= 0) {
+                    results[line] = oldResults[sources[line]];
+                    bodies[line] = oldBodies[sources[line]];
+                } else {
+                    results[line] = solveLine(line);
+                    solved += results[line] != null ? 1 : 0;
+                }
+            }
+            // a solved line is shown as an edit of a removed line that followed the same kept line
+            Map<Integer, Deque<Integer>> removedLinesByAnchor = new LinkedHashMap<>();
+            int anchor = 0;
+            for (int line = 1; line < oldCount; line++) {
+                if (kept[line]) {
+                    anchor = line;
+                } else {
+                    removedLinesByAnchor.computeIfAbsent(anchor, key -> new ArrayDeque<>()).add(line);
+                }
+            }
+            changed = 0;
+            anchor = 0;
+            for (int line = 1; line < newCount; line++) {
+                if (sources[line] >= 0) {
+                    anchor = sources[line];
+                    continue;
+                }
+                Deque<Integer> removedLines = removedLinesByAnchor.get(anchor);
+                Integer removedLine = removedLines != null ? removedLines.poll() : null;
+                noteChange(removedLine != null ? oldResults[removedLine] : null, results[line], line);
+            }
+            for (Deque<Integer> removedLines : removedLinesByAnchor.values()) {
+                for (int removedLine : removedLines) {
+                    noteChange(oldResults[removedLine], null, removedLine);
+                }
+            }
+            loaded = true;
+            return solved;
+        }
+
+        private void noteChange(String before, String after, int line) {
+            if (!Objects.equals(before, after)) {
+                if (loaded) {
+                    printChange(this, line, before, after);
+                }
+                changed++;
+            }
+        }
+
+        /**
+         * @return the result of the row on the line, or null if the line is blank; the row's body is noted either way
+         */
+        String solveLine(int line) {
+            String text = line(line);
+            if (text.trim().isEmpty()) {
+                bodies[line] = null;
+                return null;
+            }
+            String[] values = text.split(delimiter, -1);
+            bodies[line] = BatchSolver.value(values, columns[BatchSolver.BODY]);
+            return batchSolver.solveRow(values, columns, delimiter);
+        }
+
+        private String line(int line) {
+            int start = lineStarts[line];
+            return new String(content, start, lineEnd(content, lineStarts, line) - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return where each line starts, then the length of the content
+     */
+    private static int[] findLineStarts(byte[] content) {
+        int count = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (i == 0 || content[i - 1] == NEWLINE) {
+                count++;
+            }
+        }
+        int[] lineStarts = new int[count + 1];
+        int line = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (i == 0 || content[i - 1] == NEWLINE) {
+                lineStarts[line++] = i;
+            }
+        }
+        lineStarts[count] = content.length;
+        return lineStarts;
+    }
+
+    /**
+     * @return the end of the line without its line break
+     */
+    private static int lineEnd(byte[] content, int[] lineStarts, int line) {
+        int start = lineStarts[line];
+        int end = lineStarts[line + 1];
+        while (end > start && (content[end - 1] == NEWLINE || content[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int hash(byte[] content, int[] lineStarts, int line) {
+        int hash = 1;
+        for (int i = lineStarts[line]; i < lineEnd(content, lineStarts, line); i++) {
+            hash = 31 * hash + content[i];
+        }
+        return hash;
+    }
+
+    private static boolean sameLine(byte[] content, int[] lineStarts, int[] hashes, int line,
+                                    byte[] otherContent, int[] otherLineStarts, int[] otherHashes, int otherLine) {
+        if (hashes[line] != otherHashes[otherLine]) {
+            return false;
+        }
+        int start = lineStarts[line];
+        int length = lineEnd(content, lineStarts, line) - start;
+        int otherStart = otherLineStarts[otherLine];
+        if (lineEnd(otherContent, otherLineStarts, otherLine) - otherStart != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (content[start + i] != otherContent[otherStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
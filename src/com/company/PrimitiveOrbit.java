@@ -0,0 +1,150 @@
+package com.company;
+
+/**
+ * Mutable, reusable counterpart of {@link OrbitalProperties} holding primitive doubles. Which values are known is
+ * tracked in a bitmask rather than by null, so one instance can be cleared and refilled for every orbit in a batch.
+ */
+public class PrimitiveOrbit {
+
+    public static final int ORBITAL_PERIOD = 1;
+    public static final int SEMI_MAJOR_AXIS = 1 << 1;
+    public static final int APOAPSIS_HEIGHT = 1 << 2;
+    public static final int PERIAPSIS_HEIGHT = 1 << 3;
+    public static final int ECCENTRICITY = 1 << 4;
+
+    private int known;
+    private boolean circularAssumed;
+    private double orbitalPeriod;
+    private double semiMajorAxis;
+    private double apoapsisHeight;
+    private double apoapsisHeightAS;
+    private double periapsisHeight;
+    private double periapsisHeightAS;
+    private double eccentricity;
+
+    public void clear() {
+        known = 0;
+        circularAssumed = false;
+        orbitalPeriod = 0;
+        semiMajorAxis = 0;
+        apoapsisHeight = 0;
+        apoapsisHeightAS = 0;
+        periapsisHeight = 0;
+        periapsisHeightAS = 0;
+        eccentricity = 0;
+    }
+
+    public int getKnown() {
+        return known;
+    }
+
+    public boolean isKnown(int value) {
+        return (known & value) != 0;
+    }
+
+    public boolean isCircularAssumed() {
+        return circularAssumed;
+    }
+
+    public double getOrbitalPeriod() {
+        return orbitalPeriod;
+    }
+
+    public double getSemiMajorAxis() {
+        return semiMajorAxis;
+    }
+
+    public double getApoapsisHeight() {
+        return apoapsisHeight;
+    }
+
+    public double getApoapsisHeightAS() {
+        return apoapsisHeightAS;
+    }
+
+    public double getPeriapsisHeight() {
+        return periapsisHeight;
+    }
+
+    public double getPeriapsisHeightAS() {
+        return periapsisHeightAS;
+    }
+
+    public double getEccentricity() {
+        return eccentricity;
+    }
+
+    void setCircularAssumed(boolean circularAssumed) {
+        this.circularAssumed = circularAssumed;
+    }
+
+    public void setOrbitalPeriod(double orbitalPeriod) {
+        this.orbitalPeriod = orbitalPeriod;
+        known |= ORBITAL_PERIOD;
+    }
+
+    public void setSemiMajorAxis(double semiMajorAxis) {
+        this.semiMajorAxis = semiMajorAxis;
+        known |= SEMI_MAJOR_AXIS;
+    }
+
+    public void setApoapsisHeight(double apoapsisHeight) {
+        this.apoapsisHeight = apoapsisHeight;
+        known |= APOAPSIS_HEIGHT;
+    }
+
+    public void setApoapsisHeightAS(double apoapsisHeightAS) {
+        this.apoapsisHeightAS = apoapsisHeightAS;
+    }
+
+    public void setPeriapsisHeight(double periapsisHeight) {
+        this.periapsisHeight = periapsisHeight;
+        known |= PERIAPSIS_HEIGHT;
+    }
+
+    public void setPeriapsisHeightAS(double periapsisHeightAS) {
+        this.periapsisHeightAS = periapsisHeightAS;
+    }
+
+    public void setEccentricity(double eccentricity) {
+        this.eccentricity = eccentricity;
+        known |= ECCENTRICITY;
+    }
+
+    /**
+     * Replaces the contents of this orbit with the known values of the given one.
+     */
+    public void copyFrom(OrbitalProperties orbitalProperties) {
+        clear();
+        if (orbitalProperties.getOrbitalPeriod() != null) {
+            setOrbitalPeriod(orbitalProperties.getOrbitalPeriod());
+        }
+        if (orbitalProperties.getSemiMajorAxis() != null) {
+            setSemiMajorAxis(orbitalProperties.getSemiMajorAxis());
+        }
+        if (orbitalProperties.getApoapsisHeight() != null) {
+            setApoapsisHeight(orbitalProperties.getApoapsisHeight());
+        }
+        if (orbitalProperties.getPeriapsisHeight() != null) {
+            setPeriapsisHeight(orbitalProperties.getPeriapsisHeight());
+        }
+        if (orbitalProperties.getEccentricity() != null) {
+            setEccentricity(orbitalProperties.getEccentricity());
+        }
+    }
+
+    /**
+     * Replaces the contents of this orbit with those of the given one.
+     */
+    public void copyFrom(PrimitiveOrbit other) {
+        known = other.known;
+        circularAssumed = other.circularAssumed;
+        orbitalPeriod = other.orbitalPeriod;
+        semiMajorAxis = other.semiMajorAxis;
+        apoapsisHeight = other.apoapsisHeight;
+        apoapsisHeightAS = other.apoapsisHeightAS;
+        periapsisHeight = other.periapsisHeight;
+        periapsisHeightAS = other.periapsisHeightAS;
+        eccentricity = other.eccentricity;
+    }
+}
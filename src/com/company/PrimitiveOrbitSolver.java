@@ -0,0 +1,184 @@
+package com.company;
+
+import static com.company.PrimitiveOrbit.APOAPSIS_HEIGHT;
+import static com.company.PrimitiveOrbit.ECCENTRICITY;
+import static com.company.PrimitiveOrbit.ORBITAL_PERIOD;
+import static com.company.PrimitiveOrbit.PERIAPSIS_HEIGHT;
+import static com.company.PrimitiveOrbit.SEMI_MAJOR_AXIS;
+
+/**
+ * Solves a {@link PrimitiveOrbit} in place with the same arithmetic as {@link OrbitSolver#calculateUnknownValues},
+ * reporting problems as an {@link OrbitStatus} instead of throwing so nothing is allocated per orbit.
+ */
+public class PrimitiveOrbitSolver {
+
+    private static final int TIER_2_PROPERTIES = APOAPSIS_HEIGHT | PERIAPSIS_HEIGHT | ECCENTRICITY;
+
+    private PrimitiveOrbitSolver() {
+    }
+
+    public static OrbitStatus solve(PrimitiveOrbit orbit, BodyProperties bodyProperties) {
+        if (isPeriapsisGivenAboveApoapsis(orbit)) {
+            return OrbitStatus.APOAPSIS_BELOW_PERIAPSIS;
+        }
+        OrbitStatus status = checkKnownValues(orbit.getKnown());
+        if (status != OrbitStatus.SOLVED) {
+            return status;
+        }
+        calculate(orbit, bodyProperties);
+        return validate(orbit, bodyProperties);
+    }
+
+    /**
+     * @return true if both heights were given the wrong way round, which {@link OrbitalProperties} refuses as soon as
+     * they are read and so comes before every other check
+     */
+    static boolean isPeriapsisGivenAboveApoapsis(PrimitiveOrbit orbit) {
+        return orbit.isKnown(APOAPSIS_HEIGHT) && orbit.isKnown(PERIAPSIS_HEIGHT)
+                && orbit.getPeriapsisHeight() > orbit.getApoapsisHeight();
+    }
+
+    /**
+     * Fills in the unknown values of an orbit whose known values passed {@link #checkKnownValues}, without checking
+     * the result against the body.
+     */
+    static void calculate(PrimitiveOrbit orbit, BodyProperties bodyProperties) {
+        double GM = bodyProperties.getGravitationalParameter();
+        double a;
+        double rA;
+        double rP;
+        if (orbit.isKnown(ORBITAL_PERIOD | SEMI_MAJOR_AXIS)) {
+            if (orbit.isKnown(ORBITAL_PERIOD)) {
+                a = calculateAFromT(orbit.getOrbitalPeriod(), GM);
+                orbit.setSemiMajorAxis(a);
+            } else {
+                a = orbit.getSemiMajorAxis();
+                orbit.setOrbitalPeriod(calculateTFromA(a, GM));
+            }
+            if (!orbit.isKnown(TIER_2_PROPERTIES)) {
+                orbit.setCircularAssumed(true);
+                orbit.setEccentricity(0d);
+                rA = a;
+                rP = a;
+            } else if (orbit.isKnown(ECCENTRICITY)) {
+                double e = orbit.getEccentricity();
+                rA = a * (1 + e);
+                rP = a * (1 - e);
+            } else {
+                if (orbit.isKnown(APOAPSIS_HEIGHT)) {
+                    rA = orbit.getApoapsisHeight();
+                    rP = 2 * a - rA;
+                } else {
+                    rP = orbit.getPeriapsisHeight();
+                    rA = 2 * a - rP;
+                }
+                orbit.setEccentricity((rA - rP) / (rA + rP));
+            }
+        } else {
+            if (orbit.isKnown(ECCENTRICITY)) {
+                double e = orbit.getEccentricity();
+                double ratioRaToRp = (1 + e) / (1 - e);
+                if (orbit.isKnown(APOAPSIS_HEIGHT)) {
+                    rA = orbit.getApoapsisHeight();
+                    rP = rA / ratioRaToRp;
+                } else {
+                    rP = orbit.getPeriapsisHeight();
+                    rA = rP * ratioRaToRp;
+                }
+            } else {
+                if (!orbit.isKnown(APOAPSIS_HEIGHT)) {
+                    orbit.setCircularAssumed(true);
+                    rP = orbit.getPeriapsisHeight();
+                    rA = rP;
+                } else if (!orbit.isKnown(PERIAPSIS_HEIGHT)) {
+                    orbit.setCircularAssumed(true);
+                    rA = orbit.getApoapsisHeight();
+                    rP = rA;
+                } else {
+                    rA = orbit.getApoapsisHeight();
+                    rP = orbit.getPeriapsisHeight();
+                }
+                orbit.setEccentricity((rA - rP) / (rA + rP));
+            }
+            a = (rA + rP) / 2;
+            orbit.setSemiMajorAxis(a);
+            orbit.setOrbitalPeriod(calculateTFromA(a, GM));
+        }
+        orbit.setApoapsisHeight(rA);
+        orbit.setPeriapsisHeight(rP);
+    }
+
+    /**
+     * The checks of {@link OrbitSolver#findProblemWithKnownValues} against a {@link PrimitiveOrbit} known mask.
+     */
+    static OrbitStatus checkKnownValues(int known) {
+        boolean periodKnown = (known & ORBITAL_PERIOD) != 0;
+        boolean semiMajorAxisKnown = (known & SEMI_MAJOR_AXIS) != 0;
+        int numPresent = Integer.bitCount(known & TIER_2_PROPERTIES);
+        if (periodKnown && semiMajorAxisKnown) {
+            return OrbitStatus.BOTH_PERIOD_AND_SEMI_MAJOR_AXIS;
+        } else if (!periodKnown && !semiMajorAxisKnown) {
+            if (numPresent < 1) {
+                return OrbitStatus.NOT_ENOUGH_INFORMATION;
+            } else if (numPresent > 2) {
+                return OrbitStatus.TOO_MUCH_INFORMATION;
+            } else if (numPresent == 1 && (known & ECCENTRICITY) != 0) {
+                return OrbitStatus.NOT_ENOUGH_INFORMATION;
+            }
+        } else if (numPresent > 1) {
+            return OrbitStatus.TOO_MUCH_INFORMATION;
+        }
+        return OrbitStatus.SOLVED;
+    }
+
+    /**
+     * Checks a calculated orbit against the surface, atmosphere and sphere of influence of the body, filling in the
+     * heights above the surface once the orbit clears it.
+     */
+    static OrbitStatus validate(PrimitiveOrbit orbit, BodyProperties bodyProperties) {
+        double rA = orbit.getApoapsisHeight();
+        double rP = orbit.getPeriapsisHeight();
+        double radius = bodyProperties.getRadius();
+        if (rP > rA) {
+            return OrbitStatus.APOAPSIS_BELOW_PERIAPSIS;
+        }
+        if (rP < radius) {
+            return OrbitStatus.BELOW_SURFACE;
+        } else if (rP < minimumPeriapsis(bodyProperties)) {
+            return OrbitStatus.INSIDE_ATMOSPHERE;
+        }
+        orbit.setApoapsisHeightAS(rA - radius);
+        orbit.setPeriapsisHeightAS(rP - radius);
+        if (rA > maximumApoapsis(bodyProperties)) {
+            return OrbitStatus.OUTSIDE_SPHERE_OF_INFLUENCE;
+        }
+        return OrbitStatus.SOLVED;
+    }
+
+    /**
+     * @return the lowest periapsis that clears both the surface and the atmosphere
+     */
+    static double minimumPeriapsis(BodyProperties bodyProperties) {
+        return bodyProperties.getRadius() + bodyProperties.getAtmosphereThickness();
+    }
+
+    /**
+     * @return the highest apoapsis inside the sphere of influence, infinite for a body without one
+     */
+    static double maximumApoapsis(BodyProperties bodyProperties) {
+        return bodyProperties.getSphereOfInfluence() != null
+                ? bodyProperties.getSphereOfInfluence() : Double.POSITIVE_INFINITY;
+    }
+
+    static double calculateTFromA(double a, double GM) {
+        double A3 = Math.pow(a, 3);
+        double squareRoot = 0.5d;
+        return Math.pow((Main._4pi2 * A3) / GM, squareRoot);
+    }
+
+    static double calculateAFromT(double t, double GM) {
+        double T2 = Math.pow(t, 2);
+        double cubedRoot = (double) 1 / 3;
+        return Math.pow((GM * T2) / Main._4pi2, cubedRoot);
+    }
+}
@@ -0,0 +1,96 @@
+package com.company;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many orbits of a bulk run were solved and how many were rejected for each {@link OrbitStatus}, plus
+ * rows whose values could not be read at all. Safe to record into from several threads at once.
+ */
+public class RejectionReport {
+
+    private static final OrbitStatus[] STATUSES = OrbitStatus.values();
+
+    private final LongAdder[] counts = new LongAdder[STATUSES.length];
+    private final LongAdder invalidInput = new LongAdder();
+
+    public RejectionReport() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(OrbitStatus status) {
+        counts[status.ordinal()].increment();
+    }
+
+    public void recordInvalidInput() {
+        invalidInput.increment();
+    }
+
+    /**
+     * Records the status of every row of a solved batch.
+     */
+    public void recordAll(OrbitColumns columns) {
+        long[] batch = new long[STATUSES.length];
+        for (int row = 0; row < columns.size(); row++) {
+            batch[columns.getStatus(row).ordinal()]++;
+        }
+        for (int i = 0; i < batch.length; i++) {
+            counts[i].add(batch[i]);
+        }
+    }
+
+    public long getCount(OrbitStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+
+    public long getInvalidInput() {
+        return invalidInput.sum();
+    }
+
+    public long getSolved() {
+        return getCount(OrbitStatus.SOLVED);
+    }
+
+    /**
+     * @return every row that was not solved, invalid input included
+     */
+    public long getRejected() {
+        long rejected = getInvalidInput();
+        for (OrbitStatus status : STATUSES) {
+            if (status != OrbitStatus.SOLVED) {
+                rejected += getCount(status);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Prints the totals followed by one line per reason that occurred, most frequent first.
+     */
+    public void print(PrintStream output) {
+        long rejected = getRejected();
+        output.println(String.format("%d solved, %d rejected", getSolved(), rejected));
+        String[] reasons = new String[STATUSES.length + 1];
+        long[] reasonCounts = new long[STATUSES.length + 1];
+        Integer[] order = new Integer[reasons.length];
+        for (OrbitStatus status : STATUSES) {
+            reasons[status.ordinal()] = status.getMessage();
+            reasonCounts[status.ordinal()] = status == OrbitStatus.SOLVED ? 0 : getCount(status);
+        }
+        reasons[STATUSES.length] = BatchSolver.INVALID_INPUT;
+        reasonCounts[STATUSES.length] = getInvalidInput();
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Long.compare(reasonCounts[y], reasonCounts[x]));
+        for (int i : order) {
+            if (reasonCounts[i] > 0) {
+                output.println(String.format("  %8d  %5.1f%%  %s", reasonCounts[i], 100d * reasonCounts[i] / rejected,
+                        reasons[i]));
+            }
+        }
+    }
+}
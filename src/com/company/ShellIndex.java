@@ -0,0 +1,422 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * The shells [periapsis, apoapsis] of a set of orbits around one body, indexed for band and overlap queries.
+ * <p>
+ * Shells are kept in a treap ordered by periapsis, each node also holding the highest apoapsis below it, so a query
+ * only descends into subtrees that can still reach the band. Insert and delete take O(log n) expected time, a band
+ * query O(log n) plus at most O(log n) per match, and typically close to O(1) per match. Nodes live in parallel
+ * primitive arrays rather than objects, so a million shells cost a few tens of megabytes. Orbits are identified by
+ * small non-negative ints such as row numbers, which index a lookup table for delete. Not safe for use from several
+ * threads at once.
+ */
+public class ShellIndex {
+
+    /**
+     * Receives the two orbits of an overlapping pair.
+     */
+    public interface PairConsumer {
+        void accept(int first, int second);
+    }
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Random random;
+    private double[] periapsis = new double[INITIAL_CAPACITY];
+    private double[] apoapsis = new double[INITIAL_CAPACITY];
+    private double[] maxApoapsis = new double[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private int[] nodeOfId = new int[0];
+    private int root = NIL;
+    private int nodes;
+    private int free = NIL;
+    private int size;
+
+    public ShellIndex() {
+        this(new Random());
+    }
+
+    ShellIndex(Random random) {
+        this.random = random;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < nodeOfId.length && nodeOfId[id] != NIL;
+    }
+
+    /**
+     * Replaces the contents of the index with the first count shells of the arrays, in O(n log n) for the sort and
+     * O(n) to build, rather than inserting them one at a time.
+     */
+    public void bulkLoad(int[] ids, double[] periapsis, double[] apoapsis, int count) {
+        clear();
+        ensureCapacity(count);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = allocate(ids[i], periapsis[i], apoapsis[i]);
+        }
+        sort(order);
+        renumber(order);
+        // the treap of a sorted run with given priorities is its Cartesian tree, built with a stack of the right spine
+        int[] spine = new int[count];
+        int top = -1;
+        for (int node : order) {
+            int last = NIL;
+            while (top >= 0 && priority[spine[top]] < priority[node]) {
+                last = spine[top--];
+            }
+            left[node] = last;
+            if (top >= 0) {
+                right[spine[top]] = node;
+            }
+            spine[++top] = node;
+        }
+        root = top >= 0 ? spine[0] : NIL;
+        updateAll();
+    }
+
+    public void insert(int id, double periapsis, double apoapsis) {
+        root = insert(root, allocate(id, periapsis, apoapsis));
+    }
+
+    /**
+     * @return whether the orbit was indexed
+     */
+    public boolean delete(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        int node = nodeOfId[id];
+        root = delete(root, node);
+        nodeOfId[id] = NIL;
+        left[node] = free;
+        free = node;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        root = NIL;
+        nodes = 0;
+        free = NIL;
+        size = 0;
+        Arrays.fill(nodeOfId, NIL);
+    }
+
+    /**
+     * Reports every orbit whose shell meets the band [low, high], in order of periapsis.
+     */
+    public void crossing(double low, double high, IntConsumer results) {
+        crossing(root, low, high, NIL, results);
+    }
+
+    public int countCrossing(double low, double high) {
+        int[] count = new int[1];
+        crossing(root, low, high, NIL, id -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Reports every other orbit whose shell overlaps the shell of the given one.
+     */
+    public void overlapping(int id, IntConsumer results) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Orbit " + id + " is not indexed");
+        }
+        int node = nodeOfId[id];
+        crossing(root, periapsis[node], apoapsis[node], node, results);
+    }
+
+    /**
+     * Reports each pair of overlapping shells once, by sweeping the shells in order of periapsis while keeping the
+     * shells still open in a heap by apoapsis, so the cost is O(n log n) plus the number of pairs.
+     */
+    public void overlappingPairs(PairConsumer pairs) {
+        int[] open = new int[size];
+        int openCount = 0;
+        int[] path = new int[pathCapacity()];
+        int depth = 0;
+        int node = root;
+        while (node != NIL || depth > 0) {
+            while (node != NIL) {
+                path[depth++] = node;
+                node = left[node];
+            }
+            node = path[--depth];
+            while (openCount > 0 && apoapsis[open[0]] < periapsis[node]) {
+                open[0] = open[--openCount];
+                siftDown(open, openCount);
+            }
+            for (int i = 0; i < openCount; i++) {
+                pairs.accept(ids[open[i]], ids[node]);
+            }
+            open[openCount] = node;
+            siftUp(open, openCount++);
+            node = right[node];
+        }
+    }
+
+    private void crossing(int node, double low, double high, int exclude, IntConsumer results) {
+        while (node != NIL && maxApoapsis[node] >= low) {
+            crossing(left[node], low, high, exclude, results);
+            if (periapsis[node] > high) {
+                return;
+            }
+            if (apoapsis[node] >= low && node != exclude) {
+                results.accept(ids[node]);
+            }
+            node = right[node];
+        }
+    }
+
+    private int insert(int subtree, int node) {
+        if (subtree == NIL) {
+            return node;
+        }
+        if (less(node, subtree)) {
+            left[subtree] = insert(left[subtree], node);
+            if (priority[left[subtree]] > priority[subtree]) {
+                return rotateRight(subtree);
+            }
+        } else {
+            right[subtree] = insert(right[subtree], node);
+            if (priority[right[subtree]] > priority[subtree]) {
+                return rotateLeft(subtree);
+            }
+        }
+        update(subtree);
+        return subtree;
+    }
+
+    private int delete(int subtree, int node) {
+        if (subtree == node) {
+            return merge(left[node], right[node]);
+        }
+        if (less(node, subtree)) {
+            left[subtree] = delete(left[subtree], node);
+        } else {
+            right[subtree] = delete(right[subtree], node);
+        }
+        update(subtree);
+        return subtree;
+    }
+
+    /**
+     * Joins two treaps where every shell of the first sorts before every shell of the second.
+     */
+    private int merge(int first, int second) {
+        if (first == NIL) {
+            return second;
+        }
+        if (second == NIL) {
+            return first;
+        }
+        if (priority[first] > priority[second]) {
+            right[first] = merge(right[first], second);
+            update(first);
+            return first;
+        }
+        left[second] = merge(first, left[second]);
+        update(second);
+        return second;
+    }
+
+    private int rotateRight(int node) {
+        int child = left[node];
+        left[node] = right[child];
+        right[child] = node;
+        update(node);
+        update(child);
+        return child;
+    }
+
+    private int rotateLeft(int node) {
+        int child = right[node];
+        right[node] = left[child];
+        left[child] = node;
+        update(node);
+        update(child);
+        return child;
+    }
+
+    private void update(int node) {
+        double max = apoapsis[node];
+        if (left[node] != NIL && maxApoapsis[left[node]] > max) {
+            max = maxApoapsis[left[node]];
+        }
+        if (right[node] != NIL && maxApoapsis[right[node]] > max) {
+            max = maxApoapsis[right[node]];
+        }
+        maxApoapsis[node] = max;
+    }
+
+    /**
+     * Sets the subtree maxima of a freshly built tree, children before parents.
+     */
+    private void updateAll() {
+        int[] path = new int[pathCapacity()];
+        int depth = 0;
+        int node = root;
+        int lastVisited = NIL;
+        while (node != NIL || depth > 0) {
+            if (node != NIL) {
+                path[depth++] = node;
+                node = left[node];
+            } else {
+                int top = path[depth - 1];
+                if (right[top] != NIL && right[top] != lastVisited) {
+                    node = right[top];
+                } else {
+                    update(top);
+                    lastVisited = top;
+                    depth--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Shells sort by periapsis, then by id so that equal periapses still have a fixed place.
+     */
+    private boolean less(int first, int second) {
+        return periapsis[first] < periapsis[second] ||
+                (periapsis[first] == periapsis[second] && ids[first] < ids[second]);
+    }
+
+    private void sort(int[] order) {
+        int[] buffer = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int start = 0; start < order.length; start += 2 * width) {
+                int middle = Math.min(start + width, order.length);
+                int end = Math.min(start + 2 * width, order.length);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    buffer[k] = i < middle && (j >= end || !less(order[j], order[i])) ? order[i++] : order[j++];
+                }
+            }
+            System.arraycopy(buffer, 0, order, 0, order.length);
+        }
+    }
+
+    /**
+     * Moves the nodes so that node i is the i-th shell in order, after which a query walks the arrays front to back
+     * instead of jumping around them.
+     */
+    private void renumber(int[] order) {
+        double[] sortedPeriapsis = new double[periapsis.length];
+        double[] sortedApoapsis = new double[apoapsis.length];
+        int[] sortedIds = new int[ids.length];
+        int[] sortedPriority = new int[priority.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedPeriapsis[i] = periapsis[order[i]];
+            sortedApoapsis[i] = apoapsis[order[i]];
+            sortedIds[i] = ids[order[i]];
+            sortedPriority[i] = priority[order[i]];
+            nodeOfId[sortedIds[i]] = i;
+            order[i] = i;
+        }
+        periapsis = sortedPeriapsis;
+        apoapsis = sortedApoapsis;
+        ids = sortedIds;
+        priority = sortedPriority;
+        System.arraycopy(apoapsis, 0, maxApoapsis, 0, order.length);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int node = heap[index];
+        while (index > 0 && apoapsis[heap[(index - 1) / 2]] > apoapsis[node]) {
+            heap[index] = heap[(index - 1) / 2];
+            index = (index - 1) / 2;
+        }
+        heap[index] = node;
+    }
+
+    private void siftDown(int[] heap, int count) {
+        if (count == 0) {
+            return;
+        }
+        int node = heap[0];
+        int index = 0;
+        while (2 * index + 1 < count) {
+            int child = 2 * index + 1;
+            if (child + 1 < count && apoapsis[heap[child + 1]] < apoapsis[heap[child]]) {
+                child++;
+            }
+            if (apoapsis[heap[child]] >= apoapsis[node]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = node;
+    }
+
+    private int allocate(int id, double periapsis, double apoapsis) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Orbit ids must not be negative: " + id);
+        }
+        if (contains(id)) {
+            throw new IllegalArgumentException("Orbit " + id + " is already indexed");
+        }
+        if (periapsis > apoapsis) {
+            throw new IllegalArgumentException(OrbitStatus.APOAPSIS_BELOW_PERIAPSIS.getMessage());
+        }
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[free];
+        } else {
+            ensureCapacity(nodes + 1);
+            node = nodes++;
+        }
+        if (id >= nodeOfId.length) {
+            int length = nodeOfId.length;
+            nodeOfId = Arrays.copyOf(nodeOfId, Math.max(id + 1, 2 * length));
+            Arrays.fill(nodeOfId, length, nodeOfId.length, NIL);
+        }
+        nodeOfId[id] = node;
+        this.ids[node] = id;
+        this.periapsis[node] = periapsis;
+        this.apoapsis[node] = apoapsis;
+        this.maxApoapsis[node] = apoapsis;
+        this.priority[node] = random.nextInt();
+        this.left[node] = NIL;
+        this.right[node] = NIL;
+        size++;
+        return node;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int length = Math.max(capacity, 2 * ids.length);
+        periapsis = Arrays.copyOf(periapsis, length);
+        apoapsis = Arrays.copyOf(apoapsis, length);
+        maxApoapsis = Arrays.copyOf(maxApoapsis, length);
+        ids = Arrays.copyOf(ids, length);
+        priority = Arrays.copyOf(priority, length);
+        left = Arrays.copyOf(left, length);
+        right = Arrays.copyOf(right, length);
+    }
+
+    /**
+     * Traversal stacks are sized for the deepest tree possible, not the expected O(log n).
+     */
+    private int pathCapacity() {
+        return size + 1;
+    }
+}
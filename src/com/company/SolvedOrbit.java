@@ -0,0 +1,87 @@
+package com.company;
+
+/**
+ * An immutable snapshot of a solve: either every value of the solved orbit, or the reason it was rejected.
+ */
+public final class SolvedOrbit {
+
+    private final OrbitStatus status;
+    private final String rejection;
+    private final double orbitalPeriod;
+    private final double semiMajorAxis;
+    private final double apoapsisHeight;
+    private final double apoapsisHeightAS;
+    private final double periapsisHeight;
+    private final double periapsisHeightAS;
+    private final double eccentricity;
+
+    private SolvedOrbit(OrbitStatus status, String rejection, double orbitalPeriod, double semiMajorAxis,
+                        double apoapsisHeight, double apoapsisHeightAS, double periapsisHeight,
+                        double periapsisHeightAS, double eccentricity) {
+        this.status = status;
+        this.rejection = rejection;
+        this.orbitalPeriod = orbitalPeriod;
+        this.semiMajorAxis = semiMajorAxis;
+        this.apoapsisHeight = apoapsisHeight;
+        this.apoapsisHeightAS = apoapsisHeightAS;
+        this.periapsisHeight = periapsisHeight;
+        this.periapsisHeightAS = periapsisHeightAS;
+        this.eccentricity = eccentricity;
+    }
+
+    static SolvedOrbit of(OrbitalProperties orbitalProperties) {
+        return new SolvedOrbit(OrbitStatus.SOLVED, null, orbitalProperties.getOrbitalPeriod(),
+                orbitalProperties.getSemiMajorAxis(),
+                orbitalProperties.getApoapsisHeight(), orbitalProperties.getApoapsisHeightAS(),
+                orbitalProperties.getPeriapsisHeight(), orbitalProperties.getPeriapsisHeightAS(),
+                orbitalProperties.getEccentricity());
+    }
+
+    static SolvedOrbit rejected(OrbitStatus status, String rejection) {
+        return new SolvedOrbit(status, rejection, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN);
+    }
+
+    public boolean isSolved() {
+        return status == OrbitStatus.SOLVED;
+    }
+
+    public OrbitStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return why the orbit could not be solved, or null if it was
+     */
+    public String getRejection() {
+        return rejection;
+    }
+
+    public double getOrbitalPeriod() {
+        return orbitalPeriod;
+    }
+
+    public double getSemiMajorAxis() {
+        return semiMajorAxis;
+    }
+
+    public double getApoapsisHeight() {
+        return apoapsisHeight;
+    }
+
+    public double getApoapsisHeightAS() {
+        return apoapsisHeightAS;
+    }
+
+    public double getPeriapsisHeight() {
+        return periapsisHeight;
+    }
+
+    public double getPeriapsisHeightAS() {
+        return periapsisHeightAS;
+    }
+
+    public double getEccentricity() {
+        return eccentricity;
+    }
+}
@@ -0,0 +1,315 @@
+package com.company;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Call counts and latency histograms for each stage of solving an orbit, broken down by solver branch (the known
+ * values the orbit was given) and by outcome (solved or the reason it was rejected).
+ * <p>
+ * Metrics are off unless the JVM is started with -Dorbit.metrics=true. The flag is read once into a constant, so when
+ * it is off {@link #start()} and {@link #record} compile down to nothing. When it is on, {@link #startIfEnabled()}
+ * registers the metrics with JMX and, if -Dorbit.metrics.file is set, writes them to that file in the Prometheus text
+ * format every -Dorbit.metrics.interval seconds (10 by default) and once more when the JVM exits.
+ */
+public final class SolverMetrics implements SolverMetricsMXBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("orbit.metrics");
+    static final String FILE_PROPERTY = "orbit.metrics.file";
+    static final String INTERVAL_PROPERTY = "orbit.metrics.interval";
+    static final String OBJECT_NAME = "com.company:type=SolverMetrics";
+    private static final long DEFAULT_INTERVAL_SECONDS = 10;
+
+    public enum Stage {
+        PARSE, BODY_LOOKUP, VALIDATE, SOLVE, POST_VALIDATE, OUTPUT;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * The branch of a stage that runs before the known values have been read.
+     */
+    public static final int NO_BRANCH = 1 << 5;
+    private static final int BRANCHES = NO_BRANCH + 1;
+    private static final OrbitStatus[] STATUSES = OrbitStatus.values();
+    private static final int INVALID_INPUT = STATUSES.length;
+    private static final int OUTCOMES = INVALID_INPUT + 1;
+    private static final int[] BRANCH_VALUES = {PrimitiveOrbit.ORBITAL_PERIOD, PrimitiveOrbit.SEMI_MAJOR_AXIS,
+            PrimitiveOrbit.ECCENTRICITY, PrimitiveOrbit.APOAPSIS_HEIGHT, PrimitiveOrbit.PERIAPSIS_HEIGHT};
+    private static final String[] BRANCH_NAMES = {"T", "a", "e", "rA", "rP"};
+    // bucket 0 holds everything under 128 ns, each one after that twice the range of the one before, the last +Inf
+    private static final int MIN_BUCKET_BITS = 7;
+    private static final int BUCKETS = 28;
+
+    private static final ThreadLocal<Boolean> UNRECORDED = new ThreadLocal<>();
+
+    private final AtomicReferenceArray<Series> series =
+            new AtomicReferenceArray<>(Stage.values().length * BRANCHES * OUTCOMES);
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private SolverMetrics() {
+    }
+
+    public static SolverMetrics get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the time to pass to {@link #record} when the stage ends, or 0 when metrics are off
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records one run of a stage that began at start.
+     *
+     * @param known the {@link PrimitiveOrbit} known mask the orbit was given, or {@link #NO_BRANCH}
+     * @param status how the stage ended, or null if the input could not be read
+     */
+    public static void record(Stage stage, int known, OrbitStatus status, long start) {
+        if (ENABLED && UNRECORDED.get() == null) {
+            get().add(stage, known, status != null ? status.ordinal() : INVALID_INPUT, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs the task on this thread without recording any of its stages, e.g. to warm up the solver before it serves.
+     */
+    public static void runUnrecorded(Runnable task) {
+        if (!ENABLED) {
+            task.run();
+            return;
+        }
+        UNRECORDED.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            UNRECORDED.remove();
+        }
+    }
+
+    /**
+     * Registers the metrics with JMX and starts the dump file writer, if metrics are on. Only the first call does
+     * anything.
+     */
+    public static void startIfEnabled() {
+        if (!ENABLED) {
+            return;
+        }
+        SolverMetrics metrics = get();
+        if (!metrics.started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Metrics not registered with JMX: " + e.getMessage());
+        }
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        Path path = Paths.get(file);
+        long interval = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_SECONDS);
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleAtFixedRate(() -> metrics.dump(path), interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> metrics.dump(path)));
+    }
+
+    private void add(Stage stage, int known, int outcome, long nanos) {
+        int index = (stage.ordinal() * BRANCHES + known) * OUTCOMES + outcome;
+        Series recorded = series.get(index);
+        while (recorded == null) {
+            // reset() may clear the slot at any time, so only ever use what this thread read or installed itself
+            Series created = new Series();
+            recorded = series.compareAndSet(index, null, created) ? created : series.get(index);
+        }
+        recorded.add(nanos);
+    }
+
+    /**
+     * Writes the Prometheus text to the path, through a temporary file so a reader never sees half a dump.
+     */
+    void dump(Path path) {
+        try {
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temporary, getPrometheusText().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Metrics not written to " + path + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (int index = 0; index < series.length(); index++) {
+            Series recorded = series.get(index);
+            if (recorded != null) {
+                counts.put(key(index), recorded.count.sum());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros() {
+        Map<String, Double> means = new TreeMap<>();
+        for (int index = 0; index < series.length(); index++) {
+            Series recorded = series.get(index);
+            if (recorded != null) {
+                means.put(key(index), recorded.sumNanos.sum() / 1e3 / Math.max(recorded.count.sum(), 1));
+            }
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        Map<String, Double> percentiles = new TreeMap<>();
+        for (int index = 0; index < series.length(); index++) {
+            Series recorded = series.get(index);
+            if (recorded != null) {
+                percentiles.put(key(index), recorded.percentile(0.99) / 1e3);
+            }
+        }
+        return percentiles;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP orbit_stage_seconds Time spent in each stage of solving an orbit\n");
+        text.append("# TYPE orbit_stage_seconds histogram\n");
+        for (int index = 0; index < series.length(); index++) {
+            Series recorded = series.get(index);
+            if (recorded == null) {
+                continue;
+            }
+            String labels = labels(index);
+            long cumulative = 0;
+            for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+                cumulative += recorded.buckets.get(bucket);
+                text.append("orbit_stage_seconds_bucket{").append(labels).append(",le=\"")
+                        .append(upperBound(bucket) / 1e9).append("\"} ").append(cumulative).append('\n');
+            }
+            cumulative += recorded.buckets.get(BUCKETS - 1);
+            text.append("orbit_stage_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ").append(cumulative)
+                    .append('\n');
+            text.append("orbit_stage_seconds_sum{").append(labels).append("} ").append(recorded.sumNanos.sum() / 1e9)
+                    .append('\n');
+            text.append("orbit_stage_seconds_count{").append(labels).append("} ").append(recorded.count.sum())
+                    .append('\n');
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (int index = 0; index < series.length(); index++) {
+            series.set(index, null);
+        }
+    }
+
+    private static String key(int index) {
+        return stage(index).label() + "{" + branch(index) + "," + outcome(index) + "}";
+    }
+
+    private static String labels(int index) {
+        return "stage=\"" + stage(index).label() + "\",branch=\"" + branch(index) + "\",outcome=\"" + outcome(index)
+                + "\"";
+    }
+
+    private static Stage stage(int index) {
+        return Stage.values()[index / OUTCOMES / BRANCHES];
+    }
+
+    private static String branch(int index) {
+        int known = index / OUTCOMES % BRANCHES;
+        if (known == NO_BRANCH) {
+            return "unknown";
+        }
+        StringBuilder branch = new StringBuilder();
+        for (int i = 0; i < BRANCH_VALUES.length; i++) {
+            if ((known & BRANCH_VALUES[i]) != 0) {
+                branch.append(branch.length() > 0 ? "+" : "").append(BRANCH_NAMES[i]);
+            }
+        }
+        return branch.length() > 0 ? branch.toString() : "none";
+    }
+
+    private static String outcome(int index) {
+        int outcome = index % OUTCOMES;
+        if (outcome == INVALID_INPUT) {
+            return "invalid_input";
+        }
+        return STATUSES[outcome] == OrbitStatus.SOLVED ? "ok" : STATUSES[outcome].name().toLowerCase();
+    }
+
+    /**
+     * @return the exclusive upper bound of the bucket in nanoseconds, infinite for the last one
+     */
+    private static double upperBound(int bucket) {
+        return bucket < BUCKETS - 1 ? (double) (1L << (MIN_BUCKET_BITS + bucket)) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Creates the metrics on first use, so that a run with them off never allocates the series table.
+     */
+    private static final class Holder {
+
+        private static final SolverMetrics INSTANCE = new SolverMetrics();
+    }
+
+    private static final class Series {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void add(long nanos) {
+            count.increment();
+            sumNanos.add(nanos);
+            int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0) >> MIN_BUCKET_BITS);
+            buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        }
+
+        /**
+         * @return the upper bound of the bucket that holds the given fraction of the recorded latencies
+         */
+        double percentile(double fraction) {
+            long target = (long) Math.ceil(count.sum() * fraction);
+            long cumulative = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                cumulative += buckets.get(bucket);
+                if (cumulative >= target) {
+                    return upperBound(bucket);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+    }
+}
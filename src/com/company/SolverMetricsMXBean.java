@@ -0,0 +1,26 @@
+package com.company;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link SolverMetrics}, registered as com.company:type=SolverMetrics. Series are keyed
+ * "stage{branch,outcome}", e.g. "solve{a+e,ok}".
+ */
+public interface SolverMetricsMXBean {
+
+    Map<String, Long> getCounts();
+
+    Map<String, Double> getMeanMicros();
+
+    /**
+     * @return the upper bound of the latency bucket holding the 99th percentile of each series
+     */
+    Map<String, Double> getP99Micros();
+
+    /**
+     * @return every series in the Prometheus text format, as written to the dump file
+     */
+    String getPrometheusText();
+
+    void reset();
+}
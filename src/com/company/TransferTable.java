@@ -0,0 +1,208 @@
+package com.company;
+
+import java.io.IOException;
+
+/**
+ * Hohmann transfer delta-v, transfer time and synodic period between every ordered pair of bodies in a
+ * {@link BodyCatalog}, worked out once so that a route query is an array lookup. Orbits are taken as circular and
+ * coplanar. The transfer is the leg around the lowest body that both ends orbit: between the orbits of the two
+ * bodies (or of the planets they belong to) when neither orbits the other, or from a low orbit just above the
+ * surface and atmosphere of the parent out to the moon's orbit when one does. Escape and capture burns are not
+ * included. Pairs with no transfer, such as a body and itself, hold NaN.
+ * <p>
+ * Tables are immutable. {@link #rebuild(BodyCatalog)} returns a new table for a reloaded catalog and only recomputes
+ * the pairs that touch a body whose parameters changed, or a body orbiting one.
+ */
+public class TransferTable {
+
+    private final BodyCatalog catalog;
+    private final int size;
+    private final double[] deltaV;
+    private final double[] transferTime;
+    private final double[] synodicPeriod;
+
+    private TransferTable(BodyCatalog catalog, double[] deltaV, double[] transferTime, double[] synodicPeriod) {
+        this.catalog = catalog;
+        this.size = catalog.size();
+        this.deltaV = deltaV;
+        this.transferTime = transferTime;
+        this.synodicPeriod = synodicPeriod;
+    }
+
+    /**
+     * Usage: transfer [&lt;from body&gt; &lt;to body&gt;]
+     * <p>
+     * Prints the route between two bodies, or the whole table when no bodies are given.
+     */
+    public static void main(String[] args) throws IOException {
+        TransferTable table = new BodyRegistry(Main.SYSTEM_PROPERTIES).getTransfers();
+        BodyCatalog catalog = table.getCatalog();
+        if (args.length >= 3) {
+            BodyProperties from = catalog.get(args[1]);
+            BodyProperties to = catalog.get(args[2]);
+            if (from == null || to == null) {
+                System.out.println(OrbitStatus.REFERENCE_BODY_MISSING.getMessage());
+                return;
+            }
+            table.print(from.getId(), to.getId());
+            return;
+        }
+        for (int from = 0; from < catalog.size(); from++) {
+            for (int to = 0; to < catalog.size(); to++) {
+                if (!Double.isNaN(table.getDeltaV(from, to))) {
+                    table.print(from, to);
+                }
+            }
+        }
+    }
+
+    private void print(int from, int to) {
+        System.out.println(String.format("%s -> %s: delta-v %.1f m/s, transfer time %.0f s, synodic period %.0f s",
+                catalog.get(from).getName(), catalog.get(to).getName(), getDeltaV(from, to),
+                getTransferTime(from, to), getSynodicPeriod(from, to)));
+    }
+
+    public static TransferTable build(BodyCatalog catalog) {
+        int size = catalog.size();
+        TransferTable table = new TransferTable(catalog, new double[size * size], new double[size * size],
+                new double[size * size]);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                table.compute(from, to);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return a table for the new catalog that reuses every pair this table already holds whose bodies are unchanged,
+     * or a fresh one if bodies were added, removed or renamed
+     */
+    public TransferTable rebuild(BodyCatalog newCatalog) {
+        if (newCatalog.size() != size) {
+            return build(newCatalog);
+        }
+        boolean[] changed = new boolean[size];
+        boolean anyChanged = false;
+        for (int id = 0; id < size; id++) {
+            if (!newCatalog.get(id).getName().equals(catalog.get(id).getName())) {
+                return build(newCatalog);
+            }
+            changed[id] = !newCatalog.get(id).hasSameParameters(catalog.get(id));
+            anyChanged |= changed[id];
+        }
+        TransferTable table = new TransferTable(newCatalog, deltaV.clone(), transferTime.clone(),
+                synodicPeriod.clone());
+        if (!anyChanged) {
+            return table;
+        }
+        boolean[] affected = new boolean[size];
+        for (int id = 0; id < size; id++) {
+            for (BodyProperties body = newCatalog.get(id); body != null && !affected[id]; body = body.getParent()) {
+                affected[id] = changed[body.getId()];
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            if (affected[id]) {
+                for (int other = 0; other < size; other++) {
+                    table.compute(id, other);
+                    table.compute(other, id);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return the catalog whose bodies the ids of this table refer to
+     */
+    public BodyCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the total delta-v of both burns in m/s, or NaN if there is no transfer between the bodies
+     */
+    public double getDeltaV(int from, int to) {
+        return deltaV[from * size + to];
+    }
+
+    /**
+     * @return the time in seconds spent on the transfer orbit, half its period
+     */
+    public double getTransferTime(int from, int to) {
+        return transferTime[from * size + to];
+    }
+
+    /**
+     * @return the time in seconds between launch windows, when both orbits are back in the same relative position
+     */
+    public double getSynodicPeriod(int from, int to) {
+        return synodicPeriod[from * size + to];
+    }
+
+    public double getDeltaV(BodyProperties from, BodyProperties to) {
+        return getDeltaV(from.getId(), to.getId());
+    }
+
+    public double getTransferTime(BodyProperties from, BodyProperties to) {
+        return getTransferTime(from.getId(), to.getId());
+    }
+
+    public double getSynodicPeriod(BodyProperties from, BodyProperties to) {
+        return getSynodicPeriod(from.getId(), to.getId());
+    }
+
+    private void compute(int from, int to) {
+        int index = from * size + to;
+        deltaV[index] = Double.NaN;
+        transferTime[index] = Double.NaN;
+        synodicPeriod[index] = Double.NaN;
+        if (from == to) {
+            return;
+        }
+        BodyProperties centre = lowestCommonBody(catalog.get(from), catalog.get(to));
+        if (centre == null) {
+            return;
+        }
+        double GM = centre.getGravitationalParameter();
+        double r1 = orbitRadius(catalog.get(from), centre);
+        double r2 = orbitRadius(catalog.get(to), centre);
+        double period1 = PrimitiveOrbitSolver.calculateTFromA(r1, GM);
+        double period2 = PrimitiveOrbitSolver.calculateTFromA(r2, GM);
+        double transferSemiMajorAxis = (r1 + r2) / 2;
+        double departure = Math.sqrt(GM / r1) * (Math.sqrt(r2 / transferSemiMajorAxis) - 1);
+        double arrival = Math.sqrt(GM / r2) * (1 - Math.sqrt(r1 / transferSemiMajorAxis));
+        deltaV[index] = Math.abs(departure) + Math.abs(arrival);
+        transferTime[index] = PrimitiveOrbitSolver.calculateTFromA(transferSemiMajorAxis, GM) / 2;
+        synodicPeriod[index] = 1 / Math.abs(1 / period1 - 1 / period2);
+    }
+
+    /**
+     * @return the lowest body that both bodies are within, or null if they are in separate systems
+     */
+    private static BodyProperties lowestCommonBody(BodyProperties a, BodyProperties b) {
+        while (a != null && b != null && a != b) {
+            if (a.getDepth() >= b.getDepth()) {
+                a = a.getParent();
+            } else {
+                b = b.getParent();
+            }
+        }
+        return a == b ? a : null;
+    }
+
+    /**
+     * @return the radius around the centre that a transfer to or from the body starts or ends at: the orbit of
+     * whichever body on the way up from it orbits the centre directly, or the lowest safe orbit for the centre itself
+     */
+    private static double orbitRadius(BodyProperties body, BodyProperties centre) {
+        if (body == centre) {
+            return PrimitiveOrbitSolver.minimumPeriapsis(centre);
+        }
+        while (body.getParent() != centre) {
+            body = body.getParent();
+        }
+        return body.getOrbitSemiMajorAxis();
+    }
+}
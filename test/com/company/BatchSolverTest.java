@@ -0,0 +1,60 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Locale;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchSolverTest {
+
+    private BatchSolver batchSolver;
+
+    @Before
+    public void setUp() throws IOException {
+        batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES));
+    }
+
+    @Test
+    public void writesDecimalPointsWhateverTheDefaultLocale() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertEquals(lines("body,T,a,rA,rP,rA_AS,rP_AS,e,result",
+                    "kerbin,2392.374,800000.000,800000.000,800000.000,200000.000,200000.000,0.0000,OK"),
+                    solve("body,a,precision", "kerbin,800000,3"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void rejectsAnInvalidPrecisionForThatRowOnly() throws IOException {
+        assertEquals(lines("body,T,a,rA,rP,rA_AS,rP_AS,e,result",
+                "kerbin,,,,,,,,Invalid precision: x",
+                "kerbin,,,,,,,,Invalid precision: -1",
+                "kerbin,2392,800000,800000,800000,200000,200000,0.0000,OK"),
+                solve("body,a,precision", "kerbin,800000,x", "kerbin,800000,-1", "kerbin,800000,"));
+        assertEquals(1, batchSolver.getReport().getSolved());
+        assertEquals(2, batchSolver.getReport().getInvalidInput());
+        assertEquals(2, batchSolver.getReport().getRejected());
+    }
+
+    private String solve(String... lines) throws IOException {
+        StringWriter output = new StringWriter();
+        batchSolver.solve(new BufferedReader(new StringReader(String.join("\n", lines))), output);
+        return output.toString();
+    }
+
+    static String lines(String... lines) {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
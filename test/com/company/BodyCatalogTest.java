@@ -0,0 +1,60 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BodyCatalogTest {
+
+    private Path properties;
+    private Path catalog;
+
+    @Before
+    public void setUp() throws IOException {
+        properties = Files.createTempFile("system", ".properties");
+        catalog = Files.createTempFile("system", ".catalog");
+        Files.copy(Paths.get(Main.SYSTEM_PROPERTIES), properties, StandardCopyOption.REPLACE_EXISTING);
+        CatalogCompiler.main(new String[]{"compile-catalog", properties.toString(), catalog.toString()});
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(properties);
+        Files.deleteIfExists(catalog);
+    }
+
+    @Test
+    public void readsTheCompiledCatalog() throws IOException {
+        BodyCatalog parsed = BodyCatalog.load(Main.loadProperties(properties.toString()));
+        BodyCatalog compiled = BodyCatalog.loadCompiled(properties.toString(), catalog.toString());
+        assertEquals(parsed.size(), compiled.size());
+        for (int id = 0; id < parsed.size(); id++) {
+            assertEquals(parsed.get(id).getName(), compiled.get(id).getName());
+            assertEquals(parsed.get(id).getGravitationalParameter(), compiled.get(id).getGravitationalParameter(), 0);
+            assertEquals(parsed.get(id).getRadius(), compiled.get(id).getRadius(), 0);
+        }
+    }
+
+    @Test
+    public void parsesPropertiesEditedWithinTheSameModificationTime() throws IOException {
+        File file = properties.toFile();
+        long modified = file.lastModified();
+        String edited = new String(Files.readAllBytes(properties), StandardCharsets.ISO_8859_1)
+                .replace("kerbin.radius=6^5", "kerbin.radius=6.1^5");
+        Files.write(properties, edited.getBytes(StandardCharsets.ISO_8859_1));
+        file.setLastModified(modified);
+
+        BodyCatalog catalog = BodyCatalog.loadCompiled(properties.toString(), this.catalog.toString());
+
+        assertEquals(InputParser.calculateValue("6.1^5"), catalog.get("kerbin").getRadius(), 0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FastBatchSolverTest {
+
+    private static final String[] HEADER = {"body", "T", "a", "rA", "rP", "e", "precision"};
+    private static final String[][] VALUES = {
+            {"kerbin", "mun", "minmus", "kerbol", "pluto", "", "\tmun"},
+            {"", "", "", "30m", "1h 30m", "2h", "100h", "1x", "xh", "1,800s", "+45m", "1^3s", "\t2h\t"},
+            {"", "", "", "700000", "800000", "1e9", "x", "1,600,000", "+900000", "7^5", " 800000\t"},
+            {"", "", "", "900000", "100000AS", "80000AS", "1e400", "x", "1,900,000AS", "+950000", "9^5", "\t100000AS"},
+            {"", "", "", "700000", "80000AS", "100000AS", "10AS", "x", "250,000AS", "+80000AS", "7^5", "700000\t"},
+            {"", "", "", "0.1", "0.2", "-0.2", "1", "x", "0,1", "+0.1", "1^-1", "\t0.2 "},
+            {"", "", "3", "1", "x", "-1", "+2", "9999999999", "2147483648", "1,0", "\t4"}};
+    private BodyRegistry bodyRegistry;
+
+    @Before
+    public void setUp() throws IOException {
+        bodyRegistry = new BodyRegistry(Main.SYSTEM_PROPERTIES);
+    }
+
+    @Test
+    public void writesWhatBatchWritesForEveryKindOfRow() throws IOException {
+        assertWritesWhatBatchWrites(",");
+    }
+
+    @Test
+    public void writesWhatBatchWritesForEveryKindOfTabSeparatedRow() throws IOException {
+        assertWritesWhatBatchWrites("\t");
+    }
+
+    /**
+     * Values holding the delimiter are left out; fast mode always writes CSV, so batch's tabs are compared as commas.
+     */
+    private void assertWritesWhatBatchWrites(String delimiter) throws IOException {
+        Random random = new Random(42);
+        StringBuilder plan = new StringBuilder(String.join(delimiter, HEADER)).append('\n');
+        for (int row = 0; row < 5000; row++) {
+            for (int column = 0; column < VALUES.length; column++) {
+                String[] values = VALUES[column];
+                String value;
+                do {
+                    value = values[random.nextInt(values.length)];
+                } while (value.contains(delimiter));
+                plan.append(column > 0 ? delimiter : "").append(value);
+            }
+            plan.append('\n');
+        }
+        BatchSolver batchSolver = new BatchSolver(bodyRegistry);
+        StringWriter batchOutput = new StringWriter();
+        batchSolver.solve(new BufferedReader(new StringReader(plan.toString())), batchOutput);
+
+        FastBatchSolver fastBatchSolver = new FastBatchSolver(bodyRegistry.getCatalog());
+        ByteArrayOutputStream fastOutput = new ByteArrayOutputStream();
+        OrbitResultWriter writer = new OrbitResultWriter(fastOutput, OrbitResultWriter.Format.CSV);
+        fastBatchSolver.solve(new MappedOrbitReader(ByteBuffer.wrap(plan.toString().getBytes(StandardCharsets.UTF_8)),
+                bodyRegistry.getCatalog()), writer);
+
+        assertEquals(batchOutput.toString().replace(delimiter, ","),
+                new String(fastOutput.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(batchSolver.getReport().getSolved(), fastBatchSolver.getReport().getSolved());
+        for (OrbitStatus status : OrbitStatus.values()) {
+            assertEquals(status.name(), batchSolver.getReport().getCount(status),
+                    fastBatchSolver.getReport().getCount(status));
+        }
+        assertEquals(batchSolver.getReport().getInvalidInput(), fastBatchSolver.getReport().getInvalidInput());
+    }
+}
@@ -0,0 +1,91 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrbitColumnsTest {
+
+    private static final int ROWS = 5000;
+
+    private BodyProperties kerbin;
+
+    @Before
+    public void setUp() throws IOException {
+        kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+    }
+
+    @Test
+    public void solvesEveryRowLikeThePrimitiveSolver() {
+        OrbitColumns columns = randomColumns(new Random(42));
+        columns.solve(kerbin);
+        assertSolvedLikePrimitive(columns);
+    }
+
+    @Test
+    public void checksRowsAgainWhenSolvedAgain() {
+        OrbitColumns columns = new OrbitColumns(2);
+        columns.add(PrimitiveOrbit.SEMI_MAJOR_AXIS, 0, 1_600_000, 0, 0, 0);
+        columns.add(PrimitiveOrbit.SEMI_MAJOR_AXIS, 0, 1_600_000, 0, 0, 0);
+        columns.solve(kerbin);
+        assertEquals(OrbitStatus.SOLVED, columns.getStatus(1));
+
+        columns.semiMajorAxis[1] = 500_000;
+        columns.solve(kerbin);
+        assertEquals(OrbitStatus.SOLVED, columns.getStatus(0));
+        assertEquals(OrbitStatus.BELOW_SURFACE, columns.getStatus(1));
+        assertSolvedLikePrimitive(columns);
+    }
+
+    private OrbitColumns randomColumns(Random random) {
+        OrbitColumns columns = new OrbitColumns(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            columns.add(random.nextInt(1 << 5), 1_800 + random.nextDouble() * 200_000,
+                    500_000 + random.nextDouble() * 50_000_000, 500_000 + random.nextDouble() * 100_000_000,
+                    500_000 + random.nextDouble() * 100_000_000, random.nextDouble() * 0.9);
+        }
+        return columns;
+    }
+
+    private void assertSolvedLikePrimitive(OrbitColumns columns) {
+        PrimitiveOrbit orbit = new PrimitiveOrbit();
+        for (int row = 0; row < columns.size(); row++) {
+            orbit.clear();
+            int known = columns.known[row];
+            if ((known & PrimitiveOrbit.ORBITAL_PERIOD) != 0) {
+                orbit.setOrbitalPeriod(columns.orbitalPeriod[row]);
+            }
+            if ((known & PrimitiveOrbit.SEMI_MAJOR_AXIS) != 0) {
+                orbit.setSemiMajorAxis(columns.semiMajorAxis[row]);
+            }
+            if ((known & PrimitiveOrbit.APOAPSIS_HEIGHT) != 0) {
+                orbit.setApoapsisHeight(columns.apoapsisHeight[row]);
+            }
+            if ((known & PrimitiveOrbit.PERIAPSIS_HEIGHT) != 0) {
+                orbit.setPeriapsisHeight(columns.periapsisHeight[row]);
+            }
+            if ((known & PrimitiveOrbit.ECCENTRICITY) != 0) {
+                orbit.setEccentricity(columns.eccentricity[row]);
+            }
+            OrbitStatus status = PrimitiveOrbitSolver.solve(orbit, kerbin);
+            String message = "row " + row + " known " + known;
+            assertEquals(message, status, columns.getStatus(row));
+            if (PrimitiveOrbitSolver.checkKnownValues(known) != OrbitStatus.SOLVED
+                    || status == OrbitStatus.APOAPSIS_BELOW_PERIAPSIS) {
+                continue;
+            }
+            assertEquals(message, orbit.getOrbitalPeriod(), columns.getOrbitalPeriod(row), 0);
+            assertEquals(message, orbit.getSemiMajorAxis(), columns.getSemiMajorAxis(row), 0);
+            assertEquals(message, orbit.getApoapsisHeight(), columns.getApoapsisHeight(row), 0);
+            assertEquals(message, orbit.getPeriapsisHeight(), columns.getPeriapsisHeight(row), 0);
+            assertEquals(message, orbit.getEccentricity(), columns.getEccentricity(row), 0);
+            if (status == OrbitStatus.SOLVED || status == OrbitStatus.OUTSIDE_SPHERE_OF_INFLUENCE) {
+                assertEquals(message, orbit.getApoapsisHeightAS(), columns.getApoapsisHeightAS(row), 0);
+                assertEquals(message, orbit.getPeriapsisHeightAS(), columns.getPeriapsisHeightAS(row), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Test;
+
+public class OrbitResultWriterTest {
+
+    private static final double[] TIES = {0.5, 1.5, 2.5, 0.125, 0.0625, 999.5, 1234.5, 99999.995, 1e-7, 0};
+
+    private final Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+
+    @Test
+    public void writesWhatMainPrintedInEnglish() throws IOException {
+        assertWritesWhatMainPrinted(Locale.US);
+    }
+
+    @Test
+    public void writesWhatMainPrintedInGerman() throws IOException {
+        assertWritesWhatMainPrinted(Locale.GERMANY);
+    }
+
+    @Test
+    public void appendsWhatStringFormatWritesInRootLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+        Random random = new Random(42);
+        double[] signed = {-0d, -1.5, -1234.5678, Double.NaN, Double.POSITIVE_INFINITY, 1e15};
+        for (int i = 0; i < 20000; i++) {
+            double value = random.nextInt(10) == 0 ? signed[random.nextInt(signed.length)] : randomValue(random);
+            int precision = random.nextInt(13);
+            String expected = String.format(Locale.ROOT, "%." + precision + "f", value);
+            assertEquals(value + " precision " + precision, expected,
+                    OrbitResultWriter.appendFixed(new StringBuilder(), value, precision).toString());
+        }
+    }
+
+    private void assertWritesWhatMainPrinted(Locale locale) throws IOException {
+        Locale.setDefault(Locale.Category.FORMAT, locale);
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            OrbitalProperties orbit = new OrbitalProperties();
+            orbit.setOrbitalPeriod(randomValue(random));
+            orbit.setSemiMajorAxis(randomValue(random));
+            orbit.setPeriapsisHeight(randomValue(random));
+            orbit.setApoapsisHeight(orbit.getPeriapsisHeight() + randomValue(random));
+            orbit.setApoapsisHeightAS(randomValue(random));
+            orbit.setPeriapsisHeightAS(randomValue(random));
+            orbit.setEccentricity(random.nextBoolean() ? random.nextDouble() : TIES[random.nextInt(TIES.length)] / 1e2);
+            int precision = random.nextInt(13);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            OrbitResultWriter writer = new OrbitResultWriter(output, OrbitResultWriter.Format.TEXT);
+            writer.writeText(orbit, precision);
+            writer.flush();
+
+            assertEquals(locale + " precision " + precision, print(orbit, precision),
+                    new String(output.toByteArray(), Charset.defaultCharset()));
+        }
+    }
+
+    private static double randomValue(Random random) {
+        if (random.nextInt(4) == 0) {
+            return TIES[random.nextInt(TIES.length)] * Math.pow(10, random.nextInt(4));
+        }
+        return random.nextDouble() * Math.pow(10, random.nextInt(13));
+    }
+
+    /**
+     * Main.print and formatOrbitalPeriod as they were before the writer replaced them.
+     */
+    private static String print(OrbitalProperties orbitalProperties, int precision) {
+        String numberFormat = "." + precision + "f";
+        String lineSeparator = System.lineSeparator();
+        return formatOrbitalPeriod(orbitalProperties) + lineSeparator +
+                String.format("Semi-Major Axis\t\t%," + numberFormat + " m", orbitalProperties.getSemiMajorAxis()) +
+                lineSeparator +
+                String.format("Apoapsis\t\t\t%," + numberFormat + " m (%," + numberFormat + " m)",
+                        orbitalProperties.getApoapsisHeight(), orbitalProperties.getApoapsisHeightAS()) +
+                lineSeparator +
+                String.format("Periapsis\t\t\t%," + numberFormat + " m (%," + numberFormat + " m)",
+                        orbitalProperties.getPeriapsisHeight(), orbitalProperties.getPeriapsisHeightAS()) +
+                lineSeparator +
+                String.format("Eccentricity\t\t%.4f", orbitalProperties.getEccentricity()) + lineSeparator;
+    }
+
+    private static String formatOrbitalPeriod(OrbitalProperties orbitalProperties) {
+        StringBuilder output = new StringBuilder("Orbital Period\t\t");
+        long orbitalPeriod = Math.round(orbitalProperties.getOrbitalPeriod());
+        if (orbitalPeriod > Main.SECONDS_IN_HOUR) {
+            long numHours = orbitalPeriod / Main.SECONDS_IN_HOUR;
+            output.append(numHours).append("h ");
+            orbitalPeriod -= numHours * Main.SECONDS_IN_HOUR;
+        }
+        if (orbitalPeriod >= Main.SECONDS_IN_MINUTE) {
+            long numMinutes = orbitalPeriod / Main.SECONDS_IN_MINUTE;
+            output.append(numMinutes).append("m ");
+            orbitalPeriod -= numMinutes * Main.SECONDS_IN_MINUTE;
+        }
+        if (orbitalPeriod > 0) {
+            output.append(orbitalPeriod).append("s");
+        }
+        return output.toString();
+    }
+}
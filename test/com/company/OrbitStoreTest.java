@@ -0,0 +1,112 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrbitStoreTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("orbits", ".orb");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void keepsBodiesByNameWhenTheCatalogChanges() throws IOException {
+        Properties systemProperties = Main.loadProperties(Main.SYSTEM_PROPERTIES);
+        BodyCatalog before = BodyCatalog.load(systemProperties);
+        try (OrbitStore store = OrbitStore.create(path)) {
+            store.append(before.get("mun"), solve(before.get("mun"), 300000), OrbitStatus.SOLVED);
+            store.append(before.get("kerbin"), solve(before.get("kerbin"), 800000), OrbitStatus.SOLVED);
+            store.appendInvalidInput(null);
+        }
+        // a body sorting first shifts the catalog id of every other body
+        systemProperties.setProperty("eve.mass", "1.2244127^23");
+        systemProperties.setProperty("eve.radius", "7^5");
+        systemProperties.setProperty("eve.atmosphere", "9^4");
+        systemProperties.setProperty("eve.soi", "8.5109365^7");
+        BodyCatalog after = BodyCatalog.load(systemProperties);
+        assertNotEquals(before.get("kerbin").getId(), after.get("kerbin").getId());
+        try (OrbitStore store = OrbitStore.open(path, true)) {
+            store.append(after.get("eve"), solve(after.get("kerbin"), 900000), OrbitStatus.SOLVED);
+            store.append(after.get("kerbin"), solve(after.get("kerbin"), 700000), OrbitStatus.SOLVED);
+        }
+        try (OrbitStore store = OrbitStore.open(path, false)) {
+            assertEquals(5, store.size());
+            assertEquals("mun", store.getBodyName(0));
+            assertEquals("kerbin", store.getBodyName(1));
+            assertNull(store.getBodyName(2));
+            assertNull(store.getStatus(2));
+            assertEquals("eve", store.getBodyName(3));
+            assertEquals("kerbin", store.getBodyName(4));
+            assertEquals(700000, store.getSemiMajorAxis(4), 0);
+        }
+    }
+
+    @Test
+    public void writesTheDocumentedStatusCodes() throws IOException {
+        BodyProperties kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        try (OrbitStore store = OrbitStore.create(path)) {
+            store.append(kerbin, new PrimitiveOrbit(), OrbitStatus.OUTSIDE_SPHERE_OF_INFLUENCE);
+        }
+        byte[] file = Files.readAllBytes(path);
+        assertEquals(8, file[OrbitStore.HEADER_SIZE + 4]);
+        try (OrbitStore store = OrbitStore.open(path, false)) {
+            assertEquals(OrbitStatus.OUTSIDE_SPHERE_OF_INFLUENCE, store.getStatus(0));
+        }
+    }
+
+    @Test
+    public void readersSeeOnlyCompleteRecordsWhileTheStoreGrows() throws Exception {
+        BodyProperties kerbin = new BodyRegistry(Main.SYSTEM_PROPERTIES).get("kerbin");
+        int records = 20000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (OrbitStore store = OrbitStore.create(path)) {
+            Thread reader = new Thread(() -> {
+                try {
+                    for (long seen = 0; seen < records; ) {
+                        long size = store.size();
+                        for (long id = seen; id < size; id++) {
+                            assertEquals("kerbin", store.getBodyName(id));
+                            assertEquals(700000 + id, store.getSemiMajorAxis(id), 0);
+                        }
+                        seen = size;
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            reader.start();
+            for (int id = 0; id < records; id++) {
+                store.append(kerbin, solve(kerbin, 700000 + id), OrbitStatus.SOLVED);
+            }
+            reader.join(10000);
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private static PrimitiveOrbit solve(BodyProperties body, double semiMajorAxis) {
+        PrimitiveOrbit orbit = new PrimitiveOrbit();
+        orbit.setSemiMajorAxis(semiMajorAxis);
+        PrimitiveOrbitSolver.solve(orbit, body);
+        return orbit;
+    }
+}
@@ -0,0 +1,77 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.Test;
+
+public class ParallelBatchSolverTest {
+
+    private static final String[] ROWS = {
+            "body\tT\ta\trA\trP\te\tprecision",
+            "kerbin\t\t700000\t\t\t\t",
+            "kerbin\t\t800000\t\t\t0.1\t2",
+            "pluto\t\t700000\t\t\t\t",
+            "kerbin\t1h\t700000\t\t\t\t",
+            "kerbin\t\t\t80000AS\t100000AS\t\t",
+            "kerbin\t\tx\t\t\t\t",
+            "kerbin\t\t800000\t\t\t\tx",
+            "mun\t100h\t\t\t\t\t",
+            "kerbin\t\t\t\t\t\t"};
+
+    @Test
+    public void reportsEveryRowExactlyOnce() throws IOException {
+        BatchSolver batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES));
+        String output = solve(batchSolver);
+        RejectionReport report = batchSolver.getReport();
+        assertEquals(ROWS.length - 1, report.getSolved() + report.getRejected());
+        assertEquals(2, report.getSolved());
+        assertEquals(2, report.getInvalidInput());
+        assertEquals(serialOutput(), output);
+    }
+
+    @Test
+    public void reportsARowThatFailsUnexpectedlyOnceAsInvalidInput() throws IOException {
+        BatchSolver batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES)) {
+            @Override
+            String solveRow(String[] values, int[] columns, String delimiter) {
+                if (values[0].equals("mun")) {
+                    throw new IllegalStateException("failed while solving");
+                }
+                return super.solveRow(values, columns, delimiter);
+            }
+        };
+        String output = solve(batchSolver);
+        RejectionReport report = batchSolver.getReport();
+        assertEquals(ROWS.length - 1, report.getSolved() + report.getRejected());
+        assertEquals(3, report.getInvalidInput());
+        assertTrue(output.contains("mun\t\t\t\t\t\t\t\t" + BatchSolver.INVALID_INPUT + System.lineSeparator()));
+        assertFalse(output.contains("failed while solving"));
+    }
+
+    private static String solve(BatchSolver batchSolver) throws IOException {
+        ParallelBatchSolver parallelBatchSolver = new ParallelBatchSolver(batchSolver, 4, 3);
+        StringWriter output = new StringWriter();
+        try {
+            parallelBatchSolver.solve(input(), output);
+        } finally {
+            parallelBatchSolver.shutdown();
+        }
+        return output.toString();
+    }
+
+    private static String serialOutput() throws IOException {
+        StringWriter output = new StringWriter();
+        new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES)).solve(input(), output);
+        return output.toString();
+    }
+
+    private static BufferedReader input() {
+        return new BufferedReader(new StringReader(String.join("\n", ROWS)));
+    }
+}
@@ -0,0 +1,152 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrimitiveOrbitSolverTest {
+
+    private static final String[] BODIES = {"kerbin", "mun", "minmus", "kerbol"};
+
+    private BodyRegistry bodyRegistry;
+
+    @Before
+    public void setUp() throws IOException {
+        bodyRegistry = new BodyRegistry(Main.SYSTEM_PROPERTIES);
+    }
+
+    @Test
+    public void solvesLikeTheOriginalCalculator() {
+        Random random = new Random(42);
+        int solved = 0;
+        for (int i = 0; i < 20000; i++) {
+            BodyProperties body = bodyRegistry.get(BODIES[random.nextInt(BODIES.length)]);
+            PrimitiveOrbit orbit = new PrimitiveOrbit();
+            int known = random.nextInt(1 << 5);
+            if ((known & PrimitiveOrbit.ORBITAL_PERIOD) != 0) {
+                orbit.setOrbitalPeriod(600 + random.nextDouble() * 1e6);
+            }
+            if ((known & PrimitiveOrbit.SEMI_MAJOR_AXIS) != 0) {
+                orbit.setSemiMajorAxis(body.getRadius() * (1 + random.nextDouble() * 100));
+            }
+            if ((known & PrimitiveOrbit.APOAPSIS_HEIGHT) != 0) {
+                orbit.setApoapsisHeight(body.getRadius() * (1 + random.nextDouble() * 100));
+            }
+            if ((known & PrimitiveOrbit.PERIAPSIS_HEIGHT) != 0) {
+                orbit.setPeriapsisHeight(body.getRadius() * (1 + random.nextDouble() * 10));
+            }
+            if ((known & PrimitiveOrbit.ECCENTRICITY) != 0) {
+                orbit.setEccentricity(random.nextDouble() * 0.9);
+            }
+            double[] expected = {orbit.getOrbitalPeriod(), orbit.getSemiMajorAxis(), orbit.getApoapsisHeight(),
+                    orbit.getPeriapsisHeight(), orbit.getEccentricity(), 0, 0};
+            OrbitStatus expectedStatus = solveAsMain(known, expected, body);
+
+            OrbitStatus status = PrimitiveOrbitSolver.solve(orbit, body);
+
+            String message = "orbit " + i + " known " + known;
+            assertEquals(message, expectedStatus, status);
+            if (status == OrbitStatus.SOLVED) {
+                solved++;
+                assertEquals(message, expected[0], orbit.getOrbitalPeriod(), 0);
+                assertEquals(message, expected[1], orbit.getSemiMajorAxis(), 0);
+                assertEquals(message, expected[2], orbit.getApoapsisHeight(), 0);
+                assertEquals(message, expected[3], orbit.getPeriapsisHeight(), 0);
+                assertEquals(message, expected[4], orbit.getEccentricity(), 0);
+                assertEquals(message, expected[5], orbit.getApoapsisHeightAS(), 0);
+                assertEquals(message, expected[6], orbit.getPeriapsisHeightAS(), 0);
+            }
+        }
+        assertTrue("only " + solved + " orbits solved", solved > 1000);
+    }
+
+    /**
+     * The checks and arithmetic of Main.knownValuesAreValid and Main.calculateUnknownValues as the calculator
+     * started with them, over T, a, rA, rP, e, rA_AS and rP_AS in that order. The original went on to solve a lone
+     * eccentricity after reporting it as not enough information; here it stops.
+     */
+    private static OrbitStatus solveAsMain(int known, double[] values, BodyProperties body) {
+        boolean periodKnown = (known & PrimitiveOrbit.ORBITAL_PERIOD) != 0;
+        boolean semiMajorAxisKnown = (known & PrimitiveOrbit.SEMI_MAJOR_AXIS) != 0;
+        boolean apoapsisKnown = (known & PrimitiveOrbit.APOAPSIS_HEIGHT) != 0;
+        boolean periapsisKnown = (known & PrimitiveOrbit.PERIAPSIS_HEIGHT) != 0;
+        boolean eccentricityKnown = (known & PrimitiveOrbit.ECCENTRICITY) != 0;
+        if (apoapsisKnown && periapsisKnown && values[3] > values[2]) {
+            // refused by OrbitalProperties while the values were read
+            return OrbitStatus.APOAPSIS_BELOW_PERIAPSIS;
+        }
+        int numPresent = (apoapsisKnown ? 1 : 0) + (periapsisKnown ? 1 : 0) + (eccentricityKnown ? 1 : 0);
+        if (periodKnown && semiMajorAxisKnown) {
+            return OrbitStatus.BOTH_PERIOD_AND_SEMI_MAJOR_AXIS;
+        } else if (!periodKnown && !semiMajorAxisKnown) {
+            if (numPresent < 1 || numPresent == 1 && eccentricityKnown) {
+                return OrbitStatus.NOT_ENOUGH_INFORMATION;
+            } else if (numPresent > 2) {
+                return OrbitStatus.TOO_MUCH_INFORMATION;
+            }
+        } else if (numPresent > 1) {
+            return OrbitStatus.TOO_MUCH_INFORMATION;
+        }
+
+        double GM = Main.G * body.getMass();
+        if (periodKnown || semiMajorAxisKnown) {
+            if (periodKnown) {
+                values[1] = Math.pow((GM * Math.pow(values[0], 2)) / Main._4pi2, (double) 1 / 3);
+            } else {
+                values[0] = Math.pow((Main._4pi2 * Math.pow(values[1], 3)) / GM, 0.5d);
+            }
+            double a = values[1];
+            if (numPresent == 0) {
+                values[4] = 0d;
+                values[3] = a;
+                values[2] = a;
+            } else if (eccentricityKnown) {
+                values[2] = a * (1 + values[4]);
+                values[3] = a * (1 - values[4]);
+            } else {
+                if (apoapsisKnown) {
+                    values[3] = 2 * a - values[2];
+                } else {
+                    values[2] = 2 * a - values[3];
+                }
+                values[4] = (values[2] - values[3]) / (values[2] + values[3]);
+            }
+        } else {
+            if (eccentricityKnown) {
+                double ratioRaToRp = (1 + values[4]) / (1 - values[4]);
+                if (apoapsisKnown) {
+                    values[3] = values[2] / ratioRaToRp;
+                } else {
+                    values[2] = values[3] * ratioRaToRp;
+                }
+            } else {
+                if (!periapsisKnown) {
+                    values[3] = values[2];
+                } else if (!apoapsisKnown) {
+                    values[2] = values[3];
+                }
+                values[4] = (values[2] - values[3]) / (values[2] + values[3]);
+            }
+            values[1] = (values[2] + values[3]) / 2;
+            values[0] = Math.pow((Main._4pi2 * Math.pow(values[1], 3)) / GM, 0.5d);
+        }
+        if (values[3] > values[2]) {
+            return OrbitStatus.APOAPSIS_BELOW_PERIAPSIS;
+        }
+        if (values[3] < body.getRadius()) {
+            return OrbitStatus.BELOW_SURFACE;
+        } else if (values[3] < body.getRadius() + body.getAtmosphereThickness()) {
+            return OrbitStatus.INSIDE_ATMOSPHERE;
+        }
+        values[5] = values[2] - body.getRadius();
+        values[6] = values[3] - body.getRadius();
+        if (body.getSphereOfInfluence() != null && values[2] > body.getSphereOfInfluence()) {
+            return OrbitStatus.OUTSIDE_SPHERE_OF_INFLUENCE;
+        }
+        return OrbitStatus.SOLVED;
+    }
+}
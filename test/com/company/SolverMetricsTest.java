@@ -0,0 +1,65 @@
+package com.company;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs in its own surefire execution with -Dorbit.metrics=true, as the flag is read once per JVM.
+ */
+public class SolverMetricsTest {
+
+    private static final int[] COLUMNS = {0, 1, 2, 3, 4, 5, 6};
+
+    private BatchSolver batchSolver;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("needs -Dorbit.metrics=true", SolverMetrics.ENABLED);
+        batchSolver = new BatchSolver(new BodyRegistry(Main.SYSTEM_PROPERTIES));
+        SolverMetrics.get().reset();
+    }
+
+    @Test
+    public void countsEveryStageOfEveryRowByBranchAndOutcome() {
+        for (int i = 0; i < 4; i++) {
+            solve("kerbin", "1h", "", "", "", "", "");
+        }
+        for (int i = 0; i < 2; i++) {
+            solve("kerbin", "", "", "", "10AS", "", "");
+        }
+        solve("kerbin", "", "", "", "", "", "");
+        solve("pluto", "1h", "", "", "", "", "");
+        solve("kerbin", "", "x", "", "", "", "");
+
+        Map<String, Long> expected = new TreeMap<>();
+        expected.put("body_lookup{unknown,ok}", 8L);
+        expected.put("body_lookup{unknown,reference_body_missing}", 1L);
+        expected.put("parse{unknown,ok}", 7L);
+        expected.put("parse{unknown,invalid_input}", 1L);
+        expected.put("validate{T,ok}", 4L);
+        expected.put("validate{rP,ok}", 2L);
+        expected.put("validate{none,not_enough_information}", 1L);
+        expected.put("solve{T,ok}", 4L);
+        expected.put("solve{rP,ok}", 2L);
+        expected.put("post_validate{T,ok}", 4L);
+        expected.put("post_validate{rP,inside_atmosphere}", 2L);
+        expected.put("output{unknown,ok}", 4L);
+        assertEquals(expected, SolverMetrics.get().getCounts());
+    }
+
+    @Test
+    public void recordsNothingWhileUnrecorded() {
+        SolverMetrics.runUnrecorded(() -> solve("kerbin", "1h", "", "", "", "", ""));
+        assertEquals(new TreeMap<String, Long>(), SolverMetrics.get().getCounts());
+    }
+
+    private void solve(String... values) {
+        batchSolver.solveRow(values, COLUMNS, ",");
+    }
+}